@@ -0,0 +1,318 @@
+package de.tum.cit.fop.maze;
+
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.JsonWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Measures how fast the GameWorld steps while a PathBot plays, without a window or renderer.
+ * Every level in the level manifest is played, followed by generated cave levels of CAVE_SIZES
+ * tiles square with enemies, shadows and traps at about the density of the shipped levels.
+ * <p>
+ * Each level is played twice:
+ * <ul>
+ *   <li>The throughput run steps the world MEASURED_STEPS times. Whenever the level ends, because the
+ *   bot cleared it or died, the world is reset and the bot starts again, so every level is measured
+ *   over the same number of steps. Resets are not timed. WARMUP_ROUNDS shorter runs of every level
+ *   come first so the JIT has compiled the step.</li>
+ *   <li>The clear run plays the level once from the start until the bot clears it, dies or
+ *   MAX_STEPS have passed, for the time to clear and the damage taken.</li>
+ * </ul>
+ * The worlds run in deterministic mode with a fixed seed, so the clear runs and the restarts are the
+ * same on every run and machine; only the throughput varies.
+ * <p>
+ * The results are written as JSON, one entry per level:
+ * <pre>
+ *   level          the map file or "cave-&lt;size&gt;"
+ *   ticksPerSecond simulation steps per second of wall-clock time in the throughput run
+ *   restarts       how often the throughput run reset the level
+ *   cleared, died  how the clear run ended
+ *   timeToClear    game time in seconds until the exit was reached, null if it was not
+ *   damageTaken    lives lost in the clear run, including the last one if the bot died
+ * </pre>
+ * Run with: gradlew :core:botBenchmark, which writes core/build/bot-benchmark.json.
+ * <p>
+ * Usage: {@code BotBenchmark [output file]}; without a file the JSON goes to standard output.
+ */
+public final class BotBenchmark {
+    private static final long SEED = 42;
+    private static final float STEP = 1 / 60f; // Seconds per step, as in the GameScreen
+    private static final int MEASURED_STEPS = 6000; // 100 seconds of game time per throughput run
+    private static final int WARMUP_STEPS = 2000;
+    private static final int WARMUP_ROUNDS = 2;
+    private static final int MAX_STEPS = 20 * 60 * 60; // The clear run gives up after 20 minutes of game time
+    private static final int[] CAVE_SIZES = {250, 500, 1000};
+
+    // Share of the reachable floor of a generated level given to each spawn or item
+    private static final float ENEMY_DENSITY = 0.01f;
+    private static final float SHADOW_DENSITY = 0.003f;
+    private static final float TRAP_DENSITY = 0.005f;
+    private static final float HEART_DENSITY = 0.001f;
+    private static final float BUFF_DENSITY = 0.001f;
+    private static final int SAFE_RADIUS = 8; // Steps around the start kept free of enemies and traps
+
+    private BotBenchmark() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Map<String, LevelData> levels = new LinkedHashMap<>();
+        LevelManifest manifest;
+        try (Reader reader = new FileReader(LevelManifest.FILE)) {
+            manifest = LevelManifest.read(reader);
+        }
+        for (LevelInfo info : manifest.getLevels()) {
+            levels.put(info.getFile(), readLevel(info));
+        }
+        for (int size : CAVE_SIZES) {
+            levels.put("cave-" + size, caveLevel(size));
+        }
+
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            for (LevelData level : levels.values()) {
+                measure(level, WARMUP_STEPS, new Result());
+            }
+        }
+        List<String> names = new ArrayList<>(levels.keySet());
+        List<Result> results = new ArrayList<>();
+        for (String name : names) {
+            LevelData level = levels.get(name);
+            Result result = new Result();
+            result.width = level.getWidth();
+            result.height = level.getHeight();
+            result.enemies = level.getEnemySpawns().length;
+            measure(level, MEASURED_STEPS, result);
+            playToEnd(level, result);
+            results.add(result);
+            System.err.println(name + ": " + Math.round(result.ticksPerSecond()) + " ticks/s, " + result.restarts + " restarts, "
+                    + (result.cleared ? "cleared in " + result.gameTime + " s" : "not cleared")
+                    + ", " + result.damageTaken + " damage");
+        }
+
+        try (Writer writer = args.length > 0 ? new FileWriter(args[0]) : new OutputStreamWriter(System.out)) {
+            writeJson(writer, names, results);
+        }
+    }
+
+    /**
+     * The outcome of the throughput run and the clear run of a level.
+     */
+    private static final class Result {
+        int width;
+        int height;
+        int enemies;
+
+        // Throughput run
+        int measuredSteps;
+        long nanos; // Wall-clock time spent stepping
+        int restarts;
+
+        // Clear run
+        int steps;
+        float gameTime;
+        boolean cleared;
+        boolean died;
+        int damageTaken;
+
+        double ticksPerSecond() {
+            return nanos == 0 ? 0 : measuredSteps * 1e9 / nanos;
+        }
+    }
+
+    /**
+     * Steps a level a fixed number of times, resetting it whenever it ends, and times the steps.
+     */
+    private static void measure(LevelData level, int steps, Result result) {
+        GameWorld world = new GameWorld(level, SEED);
+        world.setDeterministic(true);
+        Bot bot = new PathBot();
+        bot.start(world);
+
+        PlayerInput input = new PlayerInput();
+        int step = 0;
+        while (step < steps) {
+            long start = System.nanoTime();
+            while (step < steps && !world.isOver()) {
+                bot.decide(world, input);
+                world.step(input, STEP);
+                step++;
+            }
+            result.nanos += System.nanoTime() - start;
+            if (world.isOver()) {
+                world.reset();
+                bot.start(world);
+                result.restarts++;
+            }
+        }
+        result.measuredSteps = steps;
+    }
+
+    /**
+     * Plays a level from the start until it is cleared, the bot dies or MAX_STEPS have passed.
+     */
+    private static void playToEnd(LevelData level, Result result) {
+        GameWorld world = new GameWorld(level, SEED);
+        world.setDeterministic(true);
+        world.addListener(new GameWorld.Listener() {
+            @Override
+            public void playerDamaged(int livesLeft) {
+                result.damageTaken++;
+            }
+
+            @Override
+            public void playerDied() {
+                result.damageTaken++;
+                result.died = true;
+            }
+
+            @Override
+            public void levelCompleted(float elapsedTime) {
+                result.cleared = true;
+            }
+        });
+        Bot bot = new PathBot();
+        bot.start(world);
+
+        PlayerInput input = new PlayerInput();
+        while (!world.isOver() && result.steps < MAX_STEPS) {
+            bot.decide(world, input);
+            world.step(input, STEP);
+            result.steps++;
+        }
+        result.gameTime = world.getElapsedTime();
+    }
+
+    private static void writeJson(Writer writer, List<String> names, List<Result> results) throws IOException {
+        JsonWriter json = new JsonWriter(writer);
+        json.setOutputType(JsonWriter.OutputType.json);
+        json.object()
+                .set("seed", SEED)
+                .set("stepLength", STEP)
+                .set("measuredSteps", MEASURED_STEPS)
+                .set("maxSteps", MAX_STEPS)
+                .array("results");
+        for (int i = 0; i < results.size(); i++) {
+            Result result = results.get(i);
+            json.object()
+                    .set("level", names.get(i))
+                    .set("width", result.width)
+                    .set("height", result.height)
+                    .set("enemies", result.enemies)
+                    .set("ticksPerSecond", Math.round(result.ticksPerSecond()))
+                    .set("restarts", result.restarts)
+                    .set("cleared", result.cleared)
+                    .set("died", result.died)
+                    .set("steps", result.steps)
+                    .set("timeToClear", result.cleared ? result.gameTime : null)
+                    .set("damageTaken", result.damageTaken)
+                    .pop();
+        }
+        json.pop().pop();
+        writer.write('\n');
+        json.flush();
+    }
+
+    /**
+     * Parses the map file of a manifest entry. Also used by ReplayRunner and ReplayCheck.
+     */
+    static LevelData readLevel(LevelInfo info) throws IOException {
+        File mapFile = new File("maps", info.getFile() + ".properties");
+        try (FileChannel channel = FileChannel.open(mapFile.toPath(), StandardOpenOption.READ)) {
+            return LevelParser.parse(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()),
+                    info.getWidth(), info.getHeight());
+        }
+    }
+
+    /**
+     * Generates a playable cave level. The start is placed in a large connected cave, the exit on the
+     * reachable tile farthest from it and the statue in the farther half of the way; enemies, shadows,
+     * traps and pickups are spread over the rest of the reachable floor.
+     */
+    private static LevelData caveLevel(int size) {
+        return caveLevel(size, ENEMY_DENSITY);
+    }
+
+    /**
+     * Generates a playable cave level with a given share of the reachable floor holding enemies.
+     * Also used by EnemyParallelCheck.
+     */
+    static LevelData caveLevel(int size, float enemyDensity) {
+        Random random = new Random(SEED);
+        byte[] tiles = PathfindingBenchmark.caveTiles(size, random);
+
+        IntArray floor = new IntArray();
+        for (int i = 0; i < tiles.length; i++) {
+            if (tiles[i] == Tile.EMPTY) floor.add(i);
+        }
+
+        // Retry until the start lies in a cave holding at least a quarter of the floor
+        int[] distances = new int[tiles.length];
+        IntArray reachable = new IntArray();
+        int start;
+        do {
+            start = floor.get(random.nextInt(floor.size));
+            search(tiles, size, start, distances, reachable);
+        } while (reachable.size < floor.size / 4);
+
+        // The search visits tiles in order of distance, so the last one is the farthest
+        tiles[start] = Tile.ENTRY;
+        tiles[reachable.peek()] = Tile.EXIT;
+        tiles[reachable.get(reachable.size / 2 + random.nextInt(reachable.size / 2 - 1))] = Tile.STATUE;
+
+        place(tiles, reachable, distances, random, Tile.ENEMY, enemyDensity);
+        place(tiles, reachable, distances, random, Tile.SHADOW, SHADOW_DENSITY);
+        place(tiles, reachable, distances, random, Tile.TRAP, TRAP_DENSITY);
+        place(tiles, reachable, distances, random, Tile.HEART, HEART_DENSITY);
+        place(tiles, reachable, distances, random, Tile.BUFF, BUFF_DENSITY);
+        return LevelData.fromTiles(size, size, tiles, new ArrayList<>());
+    }
+
+    /**
+     * Breadth-first search over the floor from a tile, filling in the distances and the visited
+     * tiles in the order they were reached.
+     */
+    private static void search(byte[] tiles, int size, int start, int[] distances, IntArray visited) {
+        Arrays.fill(distances, -1);
+        visited.clear();
+        distances[start] = 0;
+        visited.add(start);
+        for (int head = 0; head < visited.size; head++) {
+            int index = visited.get(head);
+            int x = index % size;
+            int y = index / size;
+            int[] neighbours = {x > 0 ? index - 1 : -1, x < size - 1 ? index + 1 : -1,
+                    y > 0 ? index - size : -1, y < size - 1 ? index + size : -1};
+            for (int neighbour : neighbours) {
+                if (neighbour < 0 || tiles[neighbour] == Tile.WALL || distances[neighbour] >= 0) continue;
+                distances[neighbour] = distances[index] + 1;
+                visited.add(neighbour);
+            }
+        }
+    }
+
+    /**
+     * Puts a tile type on free reachable floor tiles outside SAFE_RADIUS of the start.
+     */
+    private static void place(byte[] tiles, IntArray reachable, int[] distances, Random random, byte type, float density) {
+        int count = Math.max(1, (int) (reachable.size * density));
+        for (int placed = 0, attempts = 0; placed < count && attempts < count * 10; attempts++) {
+            int index = reachable.get(random.nextInt(reachable.size));
+            if (tiles[index] != Tile.EMPTY || distances[index] <= SAFE_RADIUS) continue;
+            tiles[index] = type;
+            placed++;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package de.tum.cit.fop.maze;
+
+import java.util.Random;
+
+/**
+ * Checks that the TileCollider never lets a box into a blocking tile, near the origin and near the
+ * far edge of a 1000x1000 tile map, where coordinates pass 32768 pixels and a float has less than
+ * a hundredth of a pixel of precision left.
+ * <p>
+ * Two cases are checked:
+ * <ul>
+ *   <li>Boxes of the player's size walk randomly through maps with scattered walls, one map at the
+ *   origin and one whose open area lies in the far corner of a 1000x1000 map. After every move the
+ *   box must not overlap a wall.</li>
+ *   <li>A box walks at a single wall column or row, in all four directions, placed at increasing
+ *   distances up to the map edge, and must stop flush against it.</li>
+ * </ul>
+ * Overlaps are tested in double precision, independently of the collider's own tile arithmetic.
+ * <p>
+ * Run with: gradlew :core:colliderCheck; exits with status 1 on the first failure.
+ */
+public final class ColliderCheck {
+    private static final int TILE_SIZE = GameWorld.TILE_SIZE;
+    private static final int SIZE = 1000;
+    private static final float BOX = 40; // The player's hitbox
+    private static final int[] WALL_TILES = {5, 100, 300, 511, 512, 600, 900, 997};
+
+    private ColliderCheck() {
+    }
+
+    public static void main(String[] args) {
+        String failure = randomWalk(0);
+        if (failure == null) failure = randomWalk(SIZE - 40);
+        for (int i = 0; i < WALL_TILES.length && failure == null; i++) {
+            failure = walkIntoWall(WALL_TILES[i]);
+        }
+        if (failure != null) {
+            System.err.println(failure);
+            System.exit(1);
+        }
+        System.out.println("No box entered a wall");
+    }
+
+    /**
+     * Walks boxes randomly through a 40x40 tile area of scattered walls starting at a tile offset.
+     */
+    private static String randomWalk(int offset) {
+        Random random = new Random(5);
+        byte[] tiles = LevelData.emptyTiles(SIZE, SIZE);
+        for (int y = offset; y < offset + 40; y++) {
+            for (int x = offset; x < offset + 40; x++) {
+                if (random.nextFloat() < 0.25f) tiles[y * SIZE + x] = Tile.WALL;
+            }
+        }
+        TileGrid grid = new TileGrid(SIZE, SIZE, tiles);
+        TileCollider collider = new TileCollider(grid, TILE_SIZE);
+        TileCollider.Result result = new TileCollider.Result();
+
+        for (int trial = 0; trial < 100; trial++) {
+            int startX;
+            int startY;
+            do {
+                startX = offset + random.nextInt(40);
+                startY = offset + random.nextInt(40);
+            } while (grid.classify(startX, startY) != 0);
+            float x = startX * TILE_SIZE + 12;
+            float y = startY * TILE_SIZE + 12;
+            for (int step = 0; step < 1000; step++) {
+                float dx = (random.nextFloat() - 0.5f) * 30;
+                float dy = (random.nextFloat() - 0.5f) * 30;
+                collider.move(x, y, BOX, BOX, dx, dy, TileGrid.SOLID, result);
+                x = result.x;
+                y = result.y;
+                if (overlapsWall(grid, x, y)) {
+                    return "Random walk at tile " + offset + ": box at " + x + ", " + y + " overlaps a wall";
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Walks a box at a wall in one column, then one row, from both sides.
+     */
+    private static String walkIntoWall(int wall) {
+        int lane = Math.min(wall, SIZE - 3); // The row or column the box walks along
+        TileCollider.Result result = new TileCollider.Result();
+
+        byte[] tiles = LevelData.emptyTiles(SIZE, SIZE);
+        for (int y = 1; y < SIZE - 1; y++) {
+            tiles[y * SIZE + wall] = Tile.WALL;
+        }
+        TileGrid grid = new TileGrid(SIZE, SIZE, tiles);
+        TileCollider collider = new TileCollider(grid, TILE_SIZE);
+        float y = lane * TILE_SIZE + 12;
+        if (!stops(collider, grid, result, (wall - 2) * TILE_SIZE + 12, y, 1, 0, wall * TILE_SIZE - BOX)
+                || wall + 2 < SIZE - 1 && !stops(collider, grid, result, (wall + 2) * TILE_SIZE + 12, y, -1, 0, (wall + 1) * TILE_SIZE)) {
+            return "Box passed the wall in column " + wall;
+        }
+
+        tiles = LevelData.emptyTiles(SIZE, SIZE);
+        for (int x = 1; x < SIZE - 1; x++) {
+            tiles[wall * SIZE + x] = Tile.WALL;
+        }
+        grid = new TileGrid(SIZE, SIZE, tiles);
+        collider = new TileCollider(grid, TILE_SIZE);
+        float x = lane * TILE_SIZE + 12;
+        if (!stops(collider, grid, result, x, (wall - 2) * TILE_SIZE + 12, 0, 1, wall * TILE_SIZE - BOX)
+                || wall + 2 < SIZE - 1 && !stops(collider, grid, result, x, (wall + 2) * TILE_SIZE + 12, 0, -1, (wall + 1) * TILE_SIZE)) {
+            return "Box passed the wall in row " + wall;
+        }
+        return null;
+    }
+
+    /**
+     * Moves a box in small steps along one axis and checks that it ends flush against the wall.
+     */
+    private static boolean stops(TileCollider collider, TileGrid grid, TileCollider.Result result,
+                                 float x, float y, int directionX, int directionY, float expected) {
+        for (int step = 0; step < 100; step++) {
+            collider.move(x, y, BOX, BOX, directionX * 4.27f, directionY * 4.27f, TileGrid.SOLID, result);
+            x = result.x;
+            y = result.y;
+            if (overlapsWall(grid, x, y)) return false;
+        }
+        return (directionX != 0 ? x : y) == expected;
+    }
+
+    private static boolean overlapsWall(TileGrid grid, float x, float y) {
+        int firstX = (int) Math.floor((double) x / TILE_SIZE);
+        int lastX = (int) Math.ceil(((double) x + BOX) / TILE_SIZE) - 1;
+        int firstY = (int) Math.floor((double) y / TILE_SIZE);
+        int lastY = (int) Math.ceil(((double) y + BOX) / TILE_SIZE) - 1;
+        for (int tileY = firstY; tileY <= lastY; tileY++) {
+            for (int tileX = firstX; tileX <= lastX; tileX++) {
+                if ((grid.classify(tileX, tileY) & TileGrid.SOLID) != 0) return true;
+            }
+        }
+        return false;
+    }
+}
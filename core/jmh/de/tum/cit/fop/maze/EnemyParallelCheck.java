@@ -0,0 +1,94 @@
+package de.tum.cit.fop.maze;
+
+import com.badlogic.gdx.utils.IntArray;
+import java.util.Arrays;
+
+/**
+ * Checks that deciding enemy moves in parallel gives bit-identical results to deciding them on one
+ * thread, which replays and benchmarks rely on.
+ * <p>
+ * Two worlds of the same generated cave level and seed are stepped side by side, one with
+ * EnemySystem.setParallel(false) and one with setParallel(true). Both get the same PathBot input
+ * and are compared after every step: the player, and the position, state time and chase state of
+ * every enemy. The scheduler's batches near the player stay below the parallel threshold, so after
+ * each world step every enemy is also advanced in one batch, which is always split over the pool.
+ * <p>
+ * Run with: gradlew :core:enemyParallelCheck; exits with status 1 on the first difference.
+ */
+public final class EnemyParallelCheck {
+    private static final long SEED = 42;
+    private static final float STEP = 1 / 60f;
+    private static final int STEPS = 1800; // 30 seconds of game time
+    private static final int SIZE = 500;
+    private static final float ENEMY_DENSITY = 0.01f; // As in BotBenchmark, about 1700 enemies
+
+    private EnemyParallelCheck() {
+    }
+
+    public static void main(String[] args) {
+        LevelData level = BotBenchmark.caveLevel(SIZE, ENEMY_DENSITY);
+        GameWorld serial = new GameWorld(level, SEED);
+        GameWorld parallel = new GameWorld(level, SEED);
+        serial.setDeterministic(true);
+        parallel.setDeterministic(true);
+        serial.getEnemies().setParallel(false);
+        parallel.getEnemies().setParallel(true);
+
+        Bot bot = new PathBot();
+        bot.start(serial);
+        PlayerInput input = new PlayerInput();
+        IntArray all = new IntArray();
+        for (int id = 0; id < serial.getEnemies().size(); id++) {
+            all.add(id);
+        }
+        float[] deltaTimes = new float[all.size];
+        Arrays.fill(deltaTimes, STEP);
+
+        int step = 0;
+        while (step < STEPS && !serial.isOver()) {
+            // Both worlds get the input decided on the serial one; healing keeps the player in the level
+            bot.decide(serial, input);
+            input.heal = serial.getLives() < GameWorld.MAX_LIVES;
+            serial.step(input, STEP);
+            parallel.step(input, STEP);
+            serial.getEnemies().update(all, deltaTimes, serial.getPlayerPosition(), serial);
+            parallel.getEnemies().update(all, deltaTimes, parallel.getPlayerPosition(), parallel);
+            step++;
+
+            String difference = compare(serial, parallel);
+            if (difference != null) {
+                System.err.println("Step " + step + ": " + difference);
+                System.exit(1);
+            }
+        }
+        System.out.println("Identical after " + step + " steps with " + serial.getEnemies().size()
+                + " enemies");
+    }
+
+    /**
+     * @return A description of the first difference between the worlds, or null if they match
+     */
+    private static String compare(GameWorld a, GameWorld b) {
+        if (!same(a.getPlayerPosition().x, b.getPlayerPosition().x) || !same(a.getPlayerPosition().y, b.getPlayerPosition().y)
+                || a.getLives() != b.getLives() || a.isOver() != b.isOver()) {
+            return "player differs";
+        }
+        EnemySystem enemiesA = a.getEnemies();
+        EnemySystem enemiesB = b.getEnemies();
+        if (enemiesA.size() != enemiesB.size()) {
+            return "enemy count differs";
+        }
+        for (int id = 0; id < enemiesA.size(); id++) {
+            if (!same(enemiesA.getX(id), enemiesB.getX(id)) || !same(enemiesA.getY(id), enemiesB.getY(id))
+                    || !same(enemiesA.getStateTime(id), enemiesB.getStateTime(id))
+                    || enemiesA.isChasing(id) != enemiesB.isChasing(id)) {
+                return "enemy " + id + " differs";
+            }
+        }
+        return null;
+    }
+
+    private static boolean same(float a, float b) {
+        return Float.floatToIntBits(a) == Float.floatToIntBits(b);
+    }
+}
@@ -0,0 +1,92 @@
+package de.tum.cit.fop.maze;
+
+import com.badlogic.gdx.utils.IntArray;
+
+/**
+ * Plain tile-by-tile A* on a TileGrid, the baseline the Pathfinder is measured against.
+ * It uses the same pooled arrays and primitive heap as the Pathfinder, so the benchmark
+ * compares the search strategies rather than their memory handling.
+ */
+public class FlatAStar {
+    private static final int[] DX = {1, -1, 0, 0};
+    private static final int[] DY = {0, 0, 1, -1};
+
+    private final TileGrid grid;
+    private final int blockingFlags;
+    private final int width;
+    private final int[] stamps;
+    private final int[] costs;
+    private final int[] cameFrom;
+    private final boolean[] closed;
+    private final NodeHeap open = new NodeHeap(1024);
+    private int search;
+
+    public FlatAStar(TileGrid grid, int blockingFlags) {
+        this.grid = grid;
+        this.blockingFlags = blockingFlags;
+        this.width = grid.getWidth();
+        int tileCount = width * grid.getHeight();
+        stamps = new int[tileCount];
+        costs = new int[tileCount];
+        cameFrom = new int[tileCount];
+        closed = new boolean[tileCount];
+    }
+
+    /**
+     * Finds a shortest path between two tiles.
+     *
+     * @param path Receives the tile indices from start to goal, both included
+     * @return true if a path was found
+     */
+    public boolean findPath(int startX, int startY, int goalX, int goalY, IntArray path) {
+        path.clear();
+        if (!isWalkable(startX, startY) || !isWalkable(goalX, goalY)) return false;
+
+        search++;
+        open.clear();
+        int start = startY * width + startX;
+        int goal = goalY * width + goalX;
+        visit(start, 0, -1, goalX, goalY);
+
+        while (!open.isEmpty()) {
+            int node = open.pop();
+            if (closed[node]) continue;
+            if (node == goal) {
+                for (int n = goal; n != -1; n = cameFrom[n]) {
+                    path.add(n);
+                }
+                path.reverse();
+                return true;
+            }
+            closed[node] = true;
+
+            int x = node % width;
+            int y = node / width;
+            for (int d = 0; d < DX.length; d++) {
+                int nx = x + DX[d];
+                int ny = y + DY[d];
+                if (isWalkable(nx, ny)) {
+                    visit(ny * width + nx, costs[node] + 1, node, goalX, goalY);
+                }
+            }
+        }
+        return false;
+    }
+
+    private void visit(int node, int cost, int from, int goalX, int goalY) {
+        if (stamps[node] == search) {
+            if (closed[node] || cost >= costs[node]) return;
+        } else {
+            stamps[node] = search;
+            closed[node] = false;
+        }
+        costs[node] = cost;
+        cameFrom[node] = from;
+        int heuristic = Math.abs(node % width - goalX) + Math.abs(node / width - goalY);
+        open.push(node, cost + heuristic);
+    }
+
+    private boolean isWalkable(int x, int y) {
+        return (grid.classify(x, y) & blockingFlags) == 0;
+    }
+}
@@ -0,0 +1,149 @@
+package de.tum.cit.fop.maze;
+
+import com.badlogic.gdx.utils.IntArray;
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the query latency of the hierarchical Pathfinder with flat A*.
+ * <p>
+ * Each invocation answers one query from a fixed, seeded list of connected start and goal tiles.
+ * "level-4" is the largest shipped level (80x80); "cave-1000" is a generated 1000x1000 cave map.
+ * Run with: gradlew :core:jmh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PathfindingBenchmark {
+    private static final int QUERIES = 256;
+    private static final long SEED = 42;
+
+    @Param({"level-4", "cave-1000"})
+    public String map;
+
+    private Pathfinder hierarchical;
+    private FlatAStar flat;
+    private int[] queries; // start x, start y, goal x, goal y per query
+    private int next;
+    private final IntArray path = new IntArray();
+
+    @Setup
+    public void setup() throws IOException {
+        TileGrid grid = map.startsWith("cave-") ? caveGrid(Integer.parseInt(map.substring(5))) : levelGrid(map);
+        hierarchical = new Pathfinder(grid, TileGrid.BLOCKS_ENEMY);
+        flat = new FlatAStar(grid, TileGrid.BLOCKS_ENEMY);
+
+        IntArray walkable = new IntArray();
+        for (int y = 0; y < grid.getHeight(); y++) {
+            for (int x = 0; x < grid.getWidth(); x++) {
+                if ((grid.classify(x, y) & TileGrid.BLOCKS_ENEMY) == 0) walkable.add(y * grid.getWidth() + x);
+            }
+        }
+
+        // Only keep pairs that are connected, so both searches do their full work
+        Random random = new Random(SEED);
+        queries = new int[QUERIES * 4];
+        int found = 0;
+        while (found < QUERIES) {
+            int start = walkable.get(random.nextInt(walkable.size));
+            int goal = walkable.get(random.nextInt(walkable.size));
+            int startX = start % grid.getWidth();
+            int startY = start / grid.getWidth();
+            int goalX = goal % grid.getWidth();
+            int goalY = goal / grid.getWidth();
+            if (flat.findPath(startX, startY, goalX, goalY, path)) {
+                queries[found * 4] = startX;
+                queries[found * 4 + 1] = startY;
+                queries[found * 4 + 2] = goalX;
+                queries[found * 4 + 3] = goalY;
+                found++;
+            }
+        }
+    }
+
+    @Benchmark
+    public int hierarchicalAStar() {
+        int q = nextQuery();
+        hierarchical.findPath(queries[q], queries[q + 1], queries[q + 2], queries[q + 3], path);
+        return path.size;
+    }
+
+    @Benchmark
+    public int flatAStar() {
+        int q = nextQuery();
+        flat.findPath(queries[q], queries[q + 1], queries[q + 2], queries[q + 3], path);
+        return path.size;
+    }
+
+    private int nextQuery() {
+        int q = next * 4;
+        next = (next + 1) % QUERIES;
+        return q;
+    }
+
+    private static TileGrid levelGrid(String file) throws IOException {
+        File mapFile = new File("maps", file + ".properties");
+        try (FileChannel channel = FileChannel.open(mapFile.toPath(), StandardOpenOption.READ)) {
+            LevelData level = LevelParser.parse(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), 15, 15);
+            return new TileGrid(level.getWidth(), level.getHeight(), level.getTiles());
+        }
+    }
+
+    private static TileGrid caveGrid(int size) {
+        return new TileGrid(size, size, caveTiles(size, new Random(SEED)));
+    }
+
+    /**
+     * Generates a cave map: random noise smoothed with a cellular automaton into open caves
+     * connected by winding passages. Also used by BotBenchmark.
+     *
+     * @return The row-major tiles, walls and empty floor only
+     */
+    static byte[] caveTiles(int size, Random random) {
+        boolean[] wall = new boolean[size * size];
+        for (int i = 0; i < wall.length; i++) {
+            wall[i] = random.nextFloat() < 0.45f;
+        }
+        for (int step = 0; step < 4; step++) {
+            boolean[] next = new boolean[wall.length];
+            for (int y = 0; y < size; y++) {
+                for (int x = 0; x < size; x++) {
+                    int walls = 0;
+                    for (int dy = -1; dy <= 1; dy++) {
+                        for (int dx = -1; dx <= 1; dx++) {
+                            int nx = x + dx;
+                            int ny = y + dy;
+                            if (nx < 0 || nx >= size || ny < 0 || ny >= size || wall[ny * size + nx]) walls++;
+                        }
+                    }
+                    next[y * size + x] = walls >= 5;
+                }
+            }
+            wall = next;
+        }
+
+        byte[] tiles = LevelData.emptyTiles(size, size);
+        for (int i = 0; i < tiles.length; i++) {
+            if (wall[i]) tiles[i] = Tile.WALL;
+        }
+        return tiles;
+    }
+}
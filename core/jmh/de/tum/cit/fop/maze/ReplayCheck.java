@@ -0,0 +1,139 @@
+package de.tum.cit.fop.maze;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+/**
+ * Checks that a Replay plays a recorded attempt back bit for bit, and that seeking lands on exactly
+ * the state the recorded attempt had at that step.
+ * <p>
+ * For every level in the manifest an attempt is recorded: the PathBot plays, with random detours
+ * held for a while and healing when one life is left, so the attempt runs long and meets enemies,
+ * shadows and pickups. A fingerprint of the whole changing state is kept for every step. The
+ * recording is then written to bytes and read back, replayed on a new world and compared step by
+ * step, seeked to random steps back and forth, and replayed once more after the reset.
+ * <p>
+ * Run with: gradlew :core:replayCheck; exits with status 1 on the first difference.
+ */
+public final class ReplayCheck {
+    private static final long SEED = 42;
+    private static final float STEP = 1 / 60f;
+    private static final int MAX_STEPS = 6000; // 100 seconds of game time
+    private static final int SEEKS = 60;
+
+    private ReplayCheck() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        LevelManifest manifest;
+        try (Reader reader = new FileReader(LevelManifest.FILE)) {
+            manifest = LevelManifest.read(reader);
+        }
+
+        boolean passed = true;
+        for (LevelInfo info : manifest.getLevels()) {
+            LevelData level = BotBenchmark.readLevel(info);
+            long seed = SEED + info.getId();
+            Random random = new Random(seed);
+
+            // Record an attempt and the fingerprint after every step
+            GameWorld world = new GameWorld(level, seed);
+            world.setDeterministic(true);
+            InputRecording recording = new InputRecording(info.getId(), seed, STEP);
+            long[] fingerprints = new long[MAX_STEPS + 1];
+            fingerprints[0] = fingerprint(world);
+            Bot bot = new PathBot();
+            bot.start(world);
+            PlayerInput input = new PlayerInput();
+            int detour = 0;
+            int steps = 0;
+            while (steps < MAX_STEPS && !world.isOver()) {
+                if (detour > 0) {
+                    detour--;
+                } else if (random.nextInt(120) == 0) {
+                    // Hold a random direction for up to a second
+                    input.setBits(1 << random.nextInt(4) | (random.nextBoolean() ? PlayerInput.SPRINT : 0));
+                    detour = random.nextInt(60);
+                } else {
+                    bot.decide(world, input);
+                }
+                input.heal = world.getLives() == 1;
+                recording.record(input);
+                world.step(input, STEP);
+                steps++;
+                fingerprints[steps] = fingerprint(world);
+            }
+
+            // Round trip through the file format
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            recording.write(out);
+            InputRecording loaded = InputRecording.read(ByteBuffer.wrap(out.toByteArray()));
+
+            String failure = null;
+            Replay replay = new Replay(new GameWorld(level, seed), loaded);
+            if (fingerprint(replay.getWorld()) != fingerprints[0]) {
+                failure = "start differs";
+            }
+            while (failure == null && replay.step()) {
+                if (fingerprint(replay.getWorld()) != fingerprints[replay.getStep()]) {
+                    failure = "replay differs at step " + replay.getStep();
+                }
+            }
+            for (int i = 0; i < SEEKS && failure == null; i++) {
+                int target = random.nextInt(steps + 1);
+                replay.seek(target);
+                if (fingerprint(replay.getWorld()) != fingerprints[target]) {
+                    failure = "seek to step " + target + " differs";
+                }
+            }
+            if (failure == null) {
+                Replay again = new Replay(replay.getWorld(), loaded);
+                again.runToEnd();
+                if (fingerprint(again.getWorld()) != fingerprints[steps]) {
+                    failure = "second replay differs at the end";
+                }
+            }
+
+            System.out.println(info.getFile() + ": " + steps + " steps, " + out.size() + " bytes, "
+                    + (failure == null ? "identical" : failure));
+            passed &= failure == null;
+        }
+        if (!passed) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Hashes the player, effects, tiles, enemies and shadows, using the exact bits of every float.
+     */
+    private static long fingerprint(GameWorld world) {
+        long hash = 17;
+        hash = hash * 31 + Float.floatToIntBits(world.getPlayerPosition().x);
+        hash = hash * 31 + Float.floatToIntBits(world.getPlayerPosition().y);
+        hash = hash * 31 + Float.floatToIntBits(world.getPreviousPlayerX());
+        hash = hash * 31 + Float.floatToIntBits(world.getPreviousPlayerY());
+        hash = hash * 31 + world.getLives();
+        hash = hash * 31 + Float.floatToIntBits(world.getElapsedTime());
+        hash = hash * 31 + (world.isStatueCollected() ? 1 : 0);
+        hash = hash * 31 + world.getGrid().getChangeCount();
+        hash = hash * 31 + Float.floatToIntBits(world.getDamageTimer());
+        hash = hash * 31 + Float.floatToIntBits(world.getHealTimer());
+        hash = hash * 31 + Float.floatToIntBits(world.getSlowTimer());
+        hash = hash * 31 + Float.floatToIntBits(world.getBuffTimer());
+        EnemySystem enemies = world.getEnemies();
+        for (int id = 0; id < enemies.size(); id++) {
+            hash = hash * 31 + Float.floatToIntBits(enemies.getX(id));
+            hash = hash * 31 + Float.floatToIntBits(enemies.getY(id));
+            hash = hash * 31 + Float.floatToIntBits(enemies.getStateTime(id));
+            hash = hash * 31 + enemies.getType(id) * 2 + (enemies.isChasing(id) ? 1 : 0);
+        }
+        for (Shadow shadow : world.getShadows()) {
+            hash = hash * 31 + Float.floatToIntBits(shadow.getStateTime()) + (shadow.isStaring ? 1 : 0);
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,97 @@
+package de.tum.cit.fop.maze;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Plays a saved input recording (see InputRecording, written by the GameScreen to replays/) without
+ * a window and as fast as the world can be stepped, so a reported game can be reproduced and
+ * inspected outside the game.
+ * <p>
+ * The level is looked up in the level manifest by the recording's level id and the world is created
+ * with the recording's seed. Damage, the statue, the exit and death are printed with the step they
+ * happened in. With a step argument the replay first seeks to that step and prints the state there,
+ * then plays on to the end.
+ * <p>
+ * Run with: gradlew :core:replay --args="replays/&lt;file&gt;.rec [step]"
+ * <p>
+ * Usage: {@code ReplayRunner <recording> [step]}
+ */
+public final class ReplayRunner {
+
+    private ReplayRunner() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: ReplayRunner <recording" + InputRecording.EXTENSION + "> [step]");
+            System.exit(2);
+        }
+
+        InputRecording recording;
+        try (FileChannel channel = FileChannel.open(new File(args[0]).toPath(), StandardOpenOption.READ)) {
+            recording = InputRecording.read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+        LevelManifest manifest;
+        try (Reader reader = new FileReader(LevelManifest.FILE)) {
+            manifest = LevelManifest.read(reader);
+        }
+        LevelInfo info = manifest.getLevel(recording.getLevelId());
+        if (info == null) {
+            throw new IOException("Level " + recording.getLevelId() + " of the recording is not in the level manifest");
+        }
+
+        GameWorld world = new GameWorld(BotBenchmark.readLevel(info), recording.getSeed());
+        Replay replay = new Replay(world, recording);
+        System.out.println(info.getFile() + ", seed " + recording.getSeed() + ", " + recording.getStepCount() + " steps");
+        world.addListener(new GameWorld.Listener() {
+            @Override
+            public void playerDamaged(int livesLeft) {
+                event(replay, world, "damaged, " + livesLeft + " lives left");
+            }
+
+            @Override
+            public void playerDied() {
+                event(replay, world, "died");
+            }
+
+            @Override
+            public void statueCollected() {
+                event(replay, world, "collected the statue");
+            }
+
+            @Override
+            public void levelCompleted(float elapsedTime) {
+                event(replay, world, "reached the exit");
+            }
+        });
+
+        if (args.length > 1) {
+            replay.seek(Integer.parseInt(args[1]));
+            printState("Step " + replay.getStep(), world);
+        }
+
+        long start = System.nanoTime();
+        int played = replay.runToEnd();
+        long nanos = System.nanoTime() - start;
+        printState("End", world);
+        System.out.printf("Played %d steps in %.1f ms (%.0f steps/s)%n", played, nanos / 1e6,
+                nanos == 0 ? 0 : played * 1e9 / nanos);
+    }
+
+    private static void event(Replay replay, GameWorld world, String what) {
+        // The replay counts the step only after the world has played it
+        System.out.printf("  step %d (%.2f s): %s%n", replay.getStep(), world.getElapsedTime(), what);
+    }
+
+    private static void printState(String label, GameWorld world) {
+        System.out.printf("%s: player at %.1f, %.1f, %d lives, statue %s, %.2f s%s%n", label,
+                world.getPlayerPosition().x, world.getPlayerPosition().y, world.getLives(),
+                world.isStatueCollected() ? "collected" : "not collected", world.getElapsedTime(),
+                world.isOver() ? ", level over" : "");
+    }
+}
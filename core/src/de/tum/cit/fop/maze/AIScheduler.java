@@ -0,0 +1,238 @@
+package de.tum.cit.fop.maze;
+
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.TimeUtils;
+import java.util.Arrays;
+
+/**
+ * The AIScheduler class decides which entities of a group are updated in a simulation step,
+ * based on their distance to the player.
+ * <p>
+ * Entities near the player are updated every step. Entities at mid-range are updated a few times per
+ * second with the time they missed, spread over the steps so they don't all come due together.
+ * Entities further away are dormant and not even looked at: the scheduler only queries the spatial
+ * hash buckets within the mid-range distance.
+ * <p>
+ * Near entities are always updated because they can touch or see the player. Mid-range updates stop
+ * once the time budget of the step is used up; the skipped entities keep their missed time and are
+ * among the first to run in the following steps.
+ * <p>
+ * Entities are handed to the group in batches sorted by id, so a group may decide their updates in
+ * parallel and still apply them in the same order every run.
+ */
+public class AIScheduler {
+    public static final int NEAR = 0;
+    public static final int MID = 1;
+    public static final int FAR = 2;
+    private static final int MID_BATCH = 64; // Mid-range entities updated between two budget checks
+
+    /**
+     * A group of entities the scheduler updates. Entities are identified by their ids in a SpatialHash.
+     */
+    public interface Agents {
+        /**
+         * @return The x-coordinate the distance to the player is measured from
+         */
+        float getX(int id);
+
+        /**
+         * @return The y-coordinate the distance to the player is measured from
+         */
+        float getY(int id);
+
+        /**
+         * Advances a batch of entities.
+         *
+         * @param ids        The entity ids in ascending order
+         * @param deltaTimes The time since each entity was last updated in seconds, indexed by entity id
+         */
+        void update(IntArray ids, float[] deltaTimes);
+    }
+
+    private final Agents agents;
+    private final SpatialHash hash;
+    private final float nearDistance;
+    private final float midDistance;
+    private final float midInterval; // Seconds between updates of a mid-range entity
+    private long budgetNanos;
+
+    private float[] pendingTime = new float[0]; // Time each entity has missed since its last update
+    private final IntArray nearby = new IntArray(); // Reused result of spatial hash queries
+    private final IntArray due = new IntArray(); // Mid-range entities whose update is due, in id order
+    private final IntArray batch = new IntArray(); // Entities handed to the group in one update call
+    private int nextDue; // Round-robin start in the due list, so a tight budget doesn't always skip the same ids
+    private final int[] processed = new int[3];
+    private int deferred;
+
+    /**
+     * Creates a scheduler for a group of entities.
+     *
+     * @param agents       The entities to update
+     * @param hash         The spatial hash the entities are stored in
+     * @param nearDistance The distance in pixels up to which entities are updated every step
+     * @param midDistance  The distance in pixels up to which entities are updated at the mid-range rate
+     * @param midRate      How often mid-range entities are updated, in updates per second
+     * @param budgetMillis The time in milliseconds a step may spend on updates before mid-range ones are deferred
+     */
+    public AIScheduler(Agents agents, SpatialHash hash, float nearDistance, float midDistance, float midRate, float budgetMillis) {
+        if (nearDistance < 0 || midDistance < nearDistance) {
+            throw new IllegalArgumentException("Invalid tier distances: " + nearDistance + ", " + midDistance);
+        }
+        if (midRate <= 0) {
+            throw new IllegalArgumentException("Mid-range rate must be positive: " + midRate);
+        }
+        this.agents = agents;
+        this.hash = hash;
+        this.nearDistance = nearDistance;
+        this.midDistance = midDistance;
+        this.midInterval = 1 / midRate;
+        setBudget(budgetMillis);
+    }
+
+    /**
+     * Sets how much time a step may spend on updates.
+     * With Float.POSITIVE_INFINITY every due entity is updated, so the updates no longer depend on
+     * timing and a simulation plays out the same way every run.
+     *
+     * @param budgetMillis The budget in milliseconds
+     */
+    public void setBudget(float budgetMillis) {
+        if (budgetMillis <= 0) {
+            throw new IllegalArgumentException("Budget must be positive: " + budgetMillis);
+        }
+        budgetNanos = (long) (budgetMillis * 1_000_000L);
+    }
+
+    /**
+     * Forgets the missed time of all entities, for example after they were respawned.
+     * Start times are staggered over the mid-range interval so the entities come due in different steps.
+     *
+     * @param count The number of entities in the group
+     */
+    public void reset(int count) {
+        if (pendingTime.length < count) {
+            pendingTime = new float[count];
+        }
+        for (int id = 0; id < count; id++) {
+            pendingTime[id] = midInterval * ((id * 0.618034f) % 1f);
+        }
+        Arrays.fill(processed, 0);
+        deferred = 0;
+        nextDue = 0;
+    }
+
+    /**
+     * Runs one simulation step: updates the near entities and the due mid-range entities within the budget.
+     *
+     * @param deltaTime The length of the step in seconds
+     * @param playerX   The x-coordinate of the player in pixels
+     * @param playerY   The y-coordinate of the player in pixels
+     * @param count     The number of entities in the group
+     */
+    public void update(float deltaTime, float playerX, float playerY, int count) {
+        if (pendingTime.length < count) {
+            pendingTime = Arrays.copyOf(pendingTime, count);
+        }
+        long start = TimeUtils.nanoTime();
+        processed[NEAR] = 0;
+        processed[MID] = 0;
+        batch.clear();
+        due.clear();
+
+        nearby.clear();
+        hash.query(playerX - midDistance, playerY - midDistance, playerX + midDistance, playerY + midDistance, nearby);
+        float nearSquared = nearDistance * nearDistance;
+        float midSquared = midDistance * midDistance;
+        int beyond = 0; // In the queried buckets but further than the mid-range distance
+        for (int i = 0; i < nearby.size; i++) {
+            int id = nearby.get(i);
+            float dx = agents.getX(id) - playerX;
+            float dy = agents.getY(id) - playerY;
+            float distanceSquared = dx * dx + dy * dy;
+            if (distanceSquared <= nearSquared) {
+                pendingTime[id] = deltaTime;
+                batch.add(id);
+            } else if (distanceSquared <= midSquared) {
+                pendingTime[id] += deltaTime;
+                if (pendingTime[id] >= midInterval) {
+                    due.add(id);
+                }
+            } else {
+                beyond++;
+            }
+        }
+
+        processed[NEAR] = batch.size;
+        runBatch();
+
+        // Bucket order changes as entities move; sorting keeps the round-robin stable
+        due.sort();
+        int dueCount = due.size;
+        while (processed[MID] < dueCount && TimeUtils.nanoTime() - start < budgetNanos) {
+            batch.clear();
+            int end = Math.min(dueCount, processed[MID] + MID_BATCH);
+            for (int i = processed[MID]; i < end; i++) {
+                batch.add(due.get((nextDue + i) % dueCount));
+            }
+            processed[MID] = end;
+            runBatch();
+        }
+        deferred = dueCount - processed[MID];
+        nextDue = dueCount == 0 ? 0 : (nextDue + processed[MID]) % dueCount;
+        processed[FAR] = count - nearby.size + beyond;
+    }
+
+    /**
+     * The missed time of every entity and the round-robin position, for GameWorld snapshots.
+     */
+    static final class State {
+        private final float[] pendingTime;
+        private final int nextDue;
+
+        private State(float[] pendingTime, int nextDue) {
+            this.pendingTime = pendingTime;
+            this.nextDue = nextDue;
+        }
+    }
+
+    /**
+     * @return A copy of the scheduling state
+     */
+    State saveState() {
+        return new State(pendingTime.clone(), nextDue);
+    }
+
+    /**
+     * Puts the scheduling state back to a saved one.
+     *
+     * @param state A state returned by saveState() of this scheduler
+     */
+    void restoreState(State state) {
+        pendingTime = state.pendingTime.clone();
+        nextDue = state.nextDue;
+    }
+
+    private void runBatch() {
+        if (batch.size == 0) return;
+        batch.sort();
+        agents.update(batch, pendingTime);
+        for (int i = 0; i < batch.size; i++) {
+            pendingTime[batch.get(i)] = 0;
+        }
+    }
+
+    /**
+     * @param tier NEAR, MID or FAR
+     * @return The number of entities updated in the tier in the last step; for FAR, the number left dormant
+     */
+    public int getProcessed(int tier) {
+        return processed[tier];
+    }
+
+    /**
+     * @return The number of due mid-range entities the last step skipped because the budget ran out
+     */
+    public int getDeferred() {
+        return deferred;
+    }
+}
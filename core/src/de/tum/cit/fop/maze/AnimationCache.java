@@ -0,0 +1,119 @@
+package de.tum.cit.fop.maze;
+
+import com.badlogic.gdx.graphics.g2d.Animation;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * The AnimationCache class builds the animations of every enemy archetype once, from the shared
+ * sprite atlas, and hands them out by reference.
+ * <p>
+ * An archetype is a kind of enemy ("ghost", "blob", "spider", "bat" or "shadow") with an idle and an
+ * active animation. Archetypes are never changed after they are built, so any number of entities can
+ * share one; an entity only keeps its archetype id and its own animation clock.
+ */
+public class AnimationCache {
+    public static final String[] ARCHETYPES = {"ghost", "blob", "spider", "bat", "shadow"};
+    public static final int SHADOW = 4;
+    static final int MOB_TYPES = 4; // The first archetypes are mobs that chase the player
+
+    private static final int[] MOB_SHEET_COLUMNS = {6, 0, 9, 3}; // First frame column of each mob in the mobs sheet
+    private static final int MOB_FRAME_SIZE = 16;
+    private static final int SHADOW_FRAME_WIDTH = 15;
+    private static final int SHADOW_FRAME_HEIGHT = 16;
+    private static final float ANIMATION_SPEED = 0.4f;
+
+    private final Archetype[] archetypes = new Archetype[ARCHETYPES.length];
+
+    /**
+     * One immutable pair of animations shared by every entity of an archetype.
+     */
+    public static final class Archetype {
+        private final String name;
+        private final Animation<TextureRegion> idle;
+        private final Animation<TextureRegion> active;
+
+        private Archetype(String name, Animation<TextureRegion> idle, Animation<TextureRegion> active) {
+            this.name = name;
+            this.idle = idle;
+            this.active = active;
+        }
+
+        /**
+         * Returns the frame to draw for an entity of this archetype.
+         *
+         * @param active    true for the active animation (chasing or staring), false for the idle one
+         * @param stateTime The entity's animation clock in seconds
+         * @return The looping animation frame at that time
+         */
+        public TextureRegion getFrame(boolean active, float stateTime) {
+            return (active ? this.active : idle).getKeyFrame(stateTime, true);
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    /**
+     * Builds the animations of all archetypes.
+     *
+     * @param spriteAtlas The sprite atlas containing the mobs and shadow sheets
+     */
+    public AnimationCache(SpriteAtlas spriteAtlas) {
+        TextureRegion mobSheet = spriteAtlas.getRegion("mobs");
+        for (int type = 0; type < MOB_TYPES; type++) {
+            int column = MOB_SHEET_COLUMNS[type];
+            Array<TextureRegion> turnFrames = new Array<>();
+            // Two frames from each of the rows 4, 5, 7 and 6
+            for (int row : new int[]{4, 5, 7, 6}) {
+                turnFrames.add(mobFrame(mobSheet, column, row));
+                turnFrames.add(mobFrame(mobSheet, column + 1, row));
+            }
+            Array<TextureRegion> chaseFrames = new Array<>();
+            chaseFrames.add(mobFrame(mobSheet, column, 4));
+            chaseFrames.add(mobFrame(mobSheet, column + 1, 4));
+
+            archetypes[type] = new Archetype(ARCHETYPES[type],
+                    new Animation<>(ANIMATION_SPEED, turnFrames), new Animation<>(ANIMATION_SPEED, chaseFrames));
+        }
+
+        // Shadows sleep on the first two frames and stare with the next three
+        TextureRegion shadowSheet = spriteAtlas.getRegion("shadow");
+        Array<TextureRegion> sleepFrames = new Array<>();
+        Array<TextureRegion> stareFrames = new Array<>();
+        for (int column = 0; column < 5; column++) {
+            TextureRegion frame = new TextureRegion(shadowSheet, column * SHADOW_FRAME_WIDTH, 0,
+                    SHADOW_FRAME_WIDTH, SHADOW_FRAME_HEIGHT);
+            (column < 2 ? sleepFrames : stareFrames).add(frame);
+        }
+        archetypes[SHADOW] = new Archetype(ARCHETYPES[SHADOW],
+                new Animation<>(ANIMATION_SPEED, sleepFrames), new Animation<>(ANIMATION_SPEED, stareFrames));
+    }
+
+    private static TextureRegion mobFrame(TextureRegion sheet, int column, int row) {
+        return new TextureRegion(sheet, column * MOB_FRAME_SIZE, row * MOB_FRAME_SIZE, MOB_FRAME_SIZE, MOB_FRAME_SIZE);
+    }
+
+    /**
+     * Returns the id of an archetype name.
+     *
+     * @param name One of the names in ARCHETYPES
+     * @return The index of the archetype in ARCHETYPES
+     * @throws IllegalArgumentException if the name is not recognised
+     */
+    public static int idOf(String name) {
+        for (int id = 0; id < ARCHETYPES.length; id++) {
+            if (ARCHETYPES[id].equals(name)) return id;
+        }
+        throw new IllegalArgumentException("Unknown archetype: " + name);
+    }
+
+    /**
+     * @param id The archetype id
+     * @return The shared archetype
+     */
+    public Archetype get(int id) {
+        return archetypes[id];
+    }
+}
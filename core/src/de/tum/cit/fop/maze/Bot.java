@@ -0,0 +1,27 @@
+package de.tum.cit.fop.maze;
+
+/**
+ * A Bot plays a level instead of the keyboard. Before every simulation step it is asked for the
+ * controls of that step, the same PlayerInput the GameScreen would otherwise read from the keys.
+ * <p>
+ * Bots only read the world, they never change it, so a bot run can be recorded and replayed like
+ * any other attempt. The GameScreen runs a bot with F8; BotBenchmark runs one headless on many
+ * levels to measure how fast the world steps.
+ */
+public interface Bot {
+    /**
+     * Called before the first step of an attempt, and again whenever the world is reset.
+     *
+     * @param world The world about to be played
+     */
+    void start(GameWorld world);
+
+    /**
+     * Sets the controls for the next step. Movement and sprint are always set; the debug
+     * damage and heal controls are left as they are.
+     *
+     * @param world The world about to be stepped
+     * @param input The controls the step runs with
+     */
+    void decide(GameWorld world, PlayerInput input);
+}
@@ -16,6 +16,7 @@
  * <p>
  *  The screen manages the display of multiple text paragraphs with fade-in effects and user interaction through the space key.
  *  Players can either wait for the natural fade-in animation or skip to the next paragraph using the space key.
+ *  While the story is shown, the level that follows it is parsed in the background.
  */
 
 public class CutsceneScreen implements Screen {
@@ -33,11 +34,11 @@ public class CutsceneScreen implements Screen {
     private final float FADE_SPEED = 0.5f; // Speed of the fade-in animation
     private final float FONT_SCALE = 1.5f; // Scale factor for the main story text
     private final Color textColor = new Color(1, 1, 1, 1);   // Color object for text rendering with alpha support
-    private final GameScreen nextScreen; // Reference to the next screen to be shown after the cutscene
+    private final int levelNumber; // The level to start after the cutscene
 
     /**
      * Constructor for CutsceneScreen.
-     * Constructs a new CutsceneScreen with the specified game instance and next screen.
+     * Constructs a new CutsceneScreen with the specified game instance and the level that follows it.
      * Initializes the text rendering system with appropriate scaling and layout settings.
      *
      * <p>The constructor sets up:</p>
@@ -45,15 +46,17 @@ public class CutsceneScreen implements Screen {
      *   <li>Font configuration with proper scaling</li>
      *   <li>Text layout system for paragraph rendering</li>
      *   <li>Screen transition handling</li>
+     *   <li>Background loading of the next level</li>
      * </ul>
      *
      * @param game The main game instance providing access to shared resources
-     * @param nextScreen The game screen to transition to after the cutscene
+     * @param levelNumber The level to start after the cutscene
      */
 
-    public CutsceneScreen(MazeRunnerGame game, GameScreen nextScreen) {
+    public CutsceneScreen(MazeRunnerGame game, int levelNumber) {
         this.game = game;
-        this.nextScreen = nextScreen;
+        this.levelNumber = levelNumber;
+        game.getLevelLoader().preload(game.getLevelManifest().getLevel(levelNumber));
         this.font = game.getSkin().getFont("font");
         this.font.getData().setScale(FONT_SCALE);
         this.layout = new GlyphLayout();
@@ -72,9 +75,12 @@ public void render(float delta) {
             } else {
                 currentParagraph++;
                 if (currentParagraph >= paragraphs.length) {
-                    // Reset font scale and transition to next screen
+                    // Reset font scale and replace the cutscene with the level
                     font.getData().setScale(1f);
                     game.popScreen();
+                    GameScreen gameScreen = new GameScreen(game, levelNumber);
+                    game.setGameScreen(gameScreen);
+                    game.pushScreen(gameScreen);
                     return;
                 }
                 fadeIn = 0;
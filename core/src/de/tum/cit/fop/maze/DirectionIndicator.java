@@ -1,15 +1,15 @@
 package de.tum.cit.fop.maze;
 
-import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
-import com.badlogic.gdx.math.Vector2;
-import java.util.List;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.IntArray;
 
 /**
  * The DirectionIndicator class is responsible for rendering animated arrow indicator
- * pointing from the player's position toward the closest exit, after the statue has been collected.
+ * pointing from the player's position along the shortest walkable way to the nearest exit,
+ * after the statue has been collected. The way is read from the map's exit distance map.
+ * Before that, the arrows can follow any path of tiles, such as the hint path to the statue.
  */
 
 public class DirectionIndicator {
@@ -25,17 +25,19 @@ public class DirectionIndicator {
     private int currentFrame = 0; // Index of the current frame being displayed
 
     /**
-     * Initializes the DirectionIndicator by loading the arrow texture and splitting it into frames.
+     * Initializes the DirectionIndicator by splitting the arrow sheet of the sprite atlas into frames.
+     *
+     * @param spriteAtlas The sprite atlas containing the arrows sheet
      */
 
-    public DirectionIndicator() {
-        // Load the arrow sprite sheet
-        Texture arrowSheet = new Texture(Gdx.files.internal("arrows.png"));
+    public DirectionIndicator(SpriteAtlas spriteAtlas) {
+        // Get the arrow sprite sheet
+        TextureRegion arrowSheet = spriteAtlas.getRegion("arrows");
         arrowFrames = new TextureRegion[TOTAL_FRAMES];
 
         // Calculate the width and height of each frame in the sprite sheet
-        int frameWidth = arrowSheet.getWidth() / TOTAL_FRAMES;
-        int frameHeight = arrowSheet.getHeight();
+        int frameWidth = arrowSheet.getRegionWidth() / TOTAL_FRAMES;
+        int frameHeight = arrowSheet.getRegionHeight();
 
         // Extract individual frames from the sprite sheet
         for (int i = 0; i < TOTAL_FRAMES; i++) {
@@ -68,27 +70,74 @@ public void update(float delta) {
     }
 
     /**
-     * Renders the animated arrow indicators pointing towards the closest exit.
+     * Renders the animated arrow indicators pointing towards the next tile on the way to the nearest exit.
+     * Nothing is drawn if no exit can be reached.
      *
      * @param batch         The SpriteBatch used for drawing.
-     * @param playerPos     The current position of the player.
-     * @param exitPositions A list of exit positions in the maze.
+     * @param playerX       The x-coordinate of the player's centre.
+     * @param playerY       The y-coordinate of the player's centre.
+     * @param exitDistances The distances to the nearest exit of the current level.
      */
 
-    public void render(SpriteBatch batch, Vector2 playerPos, List<Vector2> exitPositions) {
-        // If batch is not drawing or there are no exits, return early
-        if (batch == null || !batch.isDrawing() || exitPositions.isEmpty()) {
+    public void render(SpriteBatch batch, float playerX, float playerY, DistanceMap exitDistances) {
+        // If batch is not drawing, return early
+        if (batch == null || !batch.isDrawing()) {
+            return;
+        }
+
+        // Look up the next tile towards the nearest reachable exit
+        int tileX = (int) (playerX / MapLoader.TILE_SIZE);
+        int tileY = (int) (playerY / MapLoader.TILE_SIZE);
+        if (exitDistances.getDistance(tileX, tileY) <= 0) {
             return;
         }
+        float targetX = (tileX + exitDistances.getDirectionX(tileX, tileY) + 0.5f) * MapLoader.TILE_SIZE;
+        float targetY = (tileY + exitDistances.getDirectionY(tileX, tileY) + 0.5f) * MapLoader.TILE_SIZE;
+        renderArrows(batch, playerX, playerY, targetX, targetY);
+    }
 
-        // Find the closest exit to the player
-        Vector2 closestExit = findClosestExit(playerPos, exitPositions);
+    /**
+     * Renders the animated arrow indicators pointing towards the tile that follows the player's tile on a path.
+     * Nothing is drawn if the player's tile is not on the path or is its last tile.
+     *
+     * @param batch    The SpriteBatch used for drawing.
+     * @param playerX  The x-coordinate of the player's centre.
+     * @param playerY  The y-coordinate of the player's centre.
+     * @param path     The tile indices (y * width + x) of the path, in walking order.
+     * @param mapWidth The width of the map in tiles.
+     */
+
+    public void render(SpriteBatch batch, float playerX, float playerY, IntArray path, int mapWidth) {
+        // If batch is not drawing, return early
+        if (batch == null || !batch.isDrawing()) {
+            return;
+        }
+
+        // Look up the tile after the player's tile on the path
+        int tile = (int) (playerY / MapLoader.TILE_SIZE) * mapWidth + (int) (playerX / MapLoader.TILE_SIZE);
+        int index = path.indexOf(tile);
+        if (index < 0 || index == path.size - 1) {
+            return;
+        }
+        int next = path.get(index + 1);
+        float targetX = (next % mapWidth + 0.5f) * MapLoader.TILE_SIZE;
+        float targetY = (next / mapWidth + 0.5f) * MapLoader.TILE_SIZE;
+        renderArrows(batch, playerX, playerY, targetX, targetY);
+    }
 
-        // Calculate the direction vector from the player to the closest exit
-        Vector2 direction = new Vector2(closestExit).sub(playerPos).nor();
+    /**
+     * Renders the arrows from the player towards a target point.
+     */
+    private void renderArrows(SpriteBatch batch, float playerX, float playerY, float targetX, float targetY) {
+        // Calculate the direction from the player to the centre of that tile
+        float offsetX = targetX - playerX;
+        float offsetY = targetY - playerY;
+        float length = (float) Math.sqrt(offsetX * offsetX + offsetY * offsetY);
+        float directionX = offsetX / length;
+        float directionY = offsetY / length;
 
         // Calculate the rotation angle of the arrows
-        float angle = direction.angleDeg();
+        float angle = MathUtils.atan2(offsetY, offsetX) * MathUtils.radiansToDegrees;
 
         // Determine the number of visible arrows based on animation time
         int visibleArrows = (int) (MAX_ARROWS * animationTime) + 1;
@@ -103,8 +152,8 @@ public void render(SpriteBatch batch, Vector2 playerPos, List<Vector2> exitPosit
         for (int i = 0; i < visibleArrows && i < MAX_ARROWS; i++) {
             // Calculate the distance of the arrow from the player
             float distance = INITIAL_OFFSET + (i * ARROW_SPACING);
-            float x = playerPos.x + direction.x * distance;
-            float y = playerPos.y + direction.y * distance;
+            float x = playerX + directionX * distance;
+            float y = playerY + directionY * distance;
 
             // Compute alpha (transparency) for fade effect
             float alpha = 1.0f - ((float) i / MAX_ARROWS);
@@ -125,37 +174,4 @@ public void render(SpriteBatch batch, Vector2 playerPos, List<Vector2> exitPosit
         // Restore the original batch color
         batch.setColor(originalR, originalG, originalB, originalA);
     }
-
-    /**
-     * Finds the closest exit to the player's position.
-     *
-     * @param playerPos     The player's current position.
-     * @param exitPositions A list of exit positions.
-     * @return The position of the closest exit.
-     */
-
-    private Vector2 findClosestExit(Vector2 playerPos, List<Vector2> exitPositions) {
-        Vector2 closest = exitPositions.get(0);
-        float minDistance = playerPos.dst(closest);
-
-        // Iterate through all exits to find the closest one
-        for (Vector2 exit : exitPositions) {
-            float distance = playerPos.dst(exit);
-            if (distance < minDistance) {
-                minDistance = distance;
-                closest = exit;
-            }
-        }
-        return closest;
-    }
-
-    /**
-     * Disposes of the texture resources to prevent memory leaks.
-     */
-
-    public void dispose() {
-        if (arrowFrames != null && arrowFrames.length > 0 && arrowFrames[0].getTexture() != null) {
-            arrowFrames[0].getTexture().dispose();
-        }
-    }
 }
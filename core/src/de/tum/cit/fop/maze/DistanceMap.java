@@ -0,0 +1,310 @@
+package de.tum.cit.fop.maze;
+
+import com.badlogic.gdx.utils.IntArray;
+import java.util.Arrays;
+
+/**
+ * The DistanceMap class stores, for every tile, the number of steps to the nearest of several source
+ * tiles and the first step of that shortest way, e.g. towards the nearest exit.
+ * <p>
+ * The map is built once with a breadth-first search started from all sources at the same time.
+ * When a tile opens or closes later, only the affected tiles are updated: an opened tile spreads the
+ * shorter distances it makes possible, and a closed tile resets the tiles whose shortest way led
+ * through it and fills them in again from their unaffected neighbours. Reading the distance or the
+ * next step of a tile is a single array lookup.
+ * <p>
+ * The sources can be replaced, which searches the whole map again; the FlowField does this each time
+ * the player moves to another tile. A source tile always counts as walkable, so the way from a
+ * neighbour still ends on it even if it has a blocking flag.
+ */
+public class DistanceMap {
+    // Step per direction code; code 0 means no step (a source or an unreachable tile)
+    private static final int[] DX = {0, 1, -1, 0, 0};
+    private static final int[] DY = {0, 0, 0, 1, -1};
+
+    private final TileGrid grid;
+    private final int blockingFlags;
+    private final int width;
+    private final int height;
+    private int[] sources;
+    private final int[] distances; // Steps to the nearest source, -1 if unreachable
+    private final byte[] directions; // Direction codes, indexed like the grid
+    private final boolean[] open; // Whether each tile was walkable when last looked at
+    private final int[] queue; // BFS queue, reused between updates
+    private final boolean[] affected; // Tiles reset by the last closed tile
+    private final IntArray affectedTiles = new IntArray();
+    private final NodeHeap heap = new NodeHeap(64);
+
+    /**
+     * Builds the distance map of a grid.
+     *
+     * @param grid          The tile grid
+     * @param blockingFlags The tile flags that cannot be walked through, e.g. TileGrid.SOLID
+     * @param sources       The row-major indices of the source tiles
+     */
+    public DistanceMap(TileGrid grid, int blockingFlags, int[] sources) {
+        this.grid = grid;
+        this.blockingFlags = blockingFlags;
+        this.width = grid.getWidth();
+        this.height = grid.getHeight();
+        this.sources = sources.clone();
+        this.distances = new int[width * height];
+        this.directions = new byte[width * height];
+        this.open = new boolean[width * height];
+        this.queue = new int[width * height];
+        this.affected = new boolean[width * height];
+        build();
+    }
+
+    /**
+     * Replaces the sources and searches the whole grid again.
+     *
+     * @param sources The row-major indices of the new source tiles; indices outside the grid are ignored
+     */
+    public void setSources(int[] sources) {
+        this.sources = sources.clone();
+        build();
+    }
+
+    /**
+     * Searches the whole grid again, e.g. after many tiles changed at once.
+     */
+    public void rebuild() {
+        build();
+    }
+
+    /**
+     * Searches from all sources at once over the whole grid.
+     */
+    private void build() {
+        Arrays.fill(distances, -1);
+        Arrays.fill(directions, (byte) 0);
+        for (int index = 0; index < open.length; index++) {
+            open[index] = isWalkable(index % width, index / width);
+        }
+
+        int head = 0;
+        int tail = 0;
+        for (int source : sources) {
+            if (source < 0 || source >= distances.length || distances[source] == 0) continue;
+            open[source] = true;
+            distances[source] = 0;
+            queue[tail++] = source;
+        }
+        spread(head, tail);
+    }
+
+    /**
+     * Continues a breadth-first search over the queued tiles, lowering the distance of every
+     * neighbour that can be reached in fewer steps.
+     */
+    private void spread(int head, int tail) {
+        while (head < tail) {
+            int index = queue[head++];
+            int x = index % width;
+            int y = index / width;
+            int nextDistance = distances[index] + 1;
+
+            for (int direction = 1; direction < DX.length; direction++) {
+                int nx = x + DX[direction];
+                int ny = y + DY[direction];
+                if (!grid.isInside(nx, ny)) continue;
+
+                int neighbour = ny * width + nx;
+                if (!open[neighbour]) continue;
+                if (distances[neighbour] >= 0 && distances[neighbour] <= nextDistance) continue;
+
+                distances[neighbour] = nextDistance;
+                // The neighbour steps back the way the search came
+                directions[neighbour] = (byte) opposite(direction);
+                queue[tail++] = neighbour;
+            }
+        }
+    }
+
+    /**
+     * Updates the map after a tile changed. Does nothing if the tile is still as walkable as before.
+     *
+     * @param tileX The tile column
+     * @param tileY The tile row
+     */
+    public void tileChanged(int tileX, int tileY) {
+        if (!grid.isInside(tileX, tileY)) return;
+        int index = tileY * width + tileX;
+        boolean walkable = isSource(index) || isWalkable(tileX, tileY);
+        if (walkable == open[index]) return;
+        open[index] = walkable;
+        if (walkable) {
+            opened(index);
+        } else {
+            closed(index);
+        }
+    }
+
+    /**
+     * An opened tile takes the distance of its best neighbour and spreads from there.
+     */
+    private void opened(int index) {
+        if (isSource(index)) {
+            distances[index] = 0;
+            directions[index] = 0;
+        } else {
+            int best = bestNeighbour(index);
+            if (best == 0) return; // Not connected to any source yet
+            distances[index] = distances[neighbour(index, best)] + 1;
+            directions[index] = (byte) best;
+        }
+        queue[0] = index;
+        spread(0, 1);
+    }
+
+    /**
+     * A closed tile invalidates every tile whose shortest way led through it. Those tiles are
+     * searched again, in order of distance, starting from their unaffected neighbours.
+     */
+    private void closed(int index) {
+        // Collect the tiles whose next steps lead into the closed tile
+        affectedTiles.clear();
+        affectedTiles.add(index);
+        affected[index] = true;
+        for (int i = 0; i < affectedTiles.size; i++) {
+            int tile = affectedTiles.get(i);
+            int x = tile % width;
+            int y = tile / width;
+            for (int direction = 1; direction < DX.length; direction++) {
+                int nx = x + DX[direction];
+                int ny = y + DY[direction];
+                if (!grid.isInside(nx, ny)) continue;
+                int neighbour = ny * width + nx;
+                if (!affected[neighbour] && distances[neighbour] > 0
+                        && directions[neighbour] == opposite(direction)) {
+                    affected[neighbour] = true;
+                    affectedTiles.add(neighbour);
+                }
+            }
+        }
+        for (int i = 0; i < affectedTiles.size; i++) {
+            int tile = affectedTiles.get(i);
+            distances[tile] = -1;
+            directions[tile] = 0;
+        }
+
+        // Seed the affected tiles from the rest of the map
+        heap.clear();
+        for (int i = 1; i < affectedTiles.size; i++) {
+            int tile = affectedTiles.get(i);
+            int best = bestNeighbour(tile);
+            if (best != 0) {
+                distances[tile] = distances[neighbour(tile, best)] + 1;
+                directions[tile] = (byte) best;
+                heap.push(tile, distances[tile]);
+            }
+        }
+        for (int i = 0; i < affectedTiles.size; i++) {
+            affected[affectedTiles.get(i)] = false;
+        }
+
+        // Dijkstra over the affected area; outdated heap entries only repeat a relaxation
+        while (!heap.isEmpty()) {
+            int tile = heap.pop();
+            int x = tile % width;
+            int y = tile / width;
+            int nextDistance = distances[tile] + 1;
+            for (int direction = 1; direction < DX.length; direction++) {
+                int nx = x + DX[direction];
+                int ny = y + DY[direction];
+                if (!grid.isInside(nx, ny)) continue;
+                int neighbour = ny * width + nx;
+                if (!open[neighbour]) continue;
+                if (distances[neighbour] >= 0 && distances[neighbour] <= nextDistance) continue;
+                distances[neighbour] = nextDistance;
+                directions[neighbour] = (byte) opposite(direction);
+                heap.push(neighbour, nextDistance);
+            }
+        }
+    }
+
+    /**
+     * Returns the direction code of the walkable neighbour closest to a source, 0 if none is reachable.
+     */
+    private int bestNeighbour(int index) {
+        int x = index % width;
+        int y = index / width;
+        int best = 0;
+        int bestDistance = Integer.MAX_VALUE;
+        for (int direction = 1; direction < DX.length; direction++) {
+            int nx = x + DX[direction];
+            int ny = y + DY[direction];
+            if (!grid.isInside(nx, ny)) continue;
+            int distance = distances[ny * width + nx];
+            if (distance >= 0 && distance < bestDistance) {
+                best = direction;
+                bestDistance = distance;
+            }
+        }
+        return best;
+    }
+
+    private int neighbour(int index, int direction) {
+        return index + DY[direction] * width + DX[direction];
+    }
+
+    private boolean isSource(int index) {
+        for (int source : sources) {
+            if (source == index) return true;
+        }
+        return false;
+    }
+
+    private boolean isWalkable(int tileX, int tileY) {
+        return (grid.classify(tileX, tileY) & blockingFlags) == 0;
+    }
+
+    private static int opposite(int direction) {
+        // Directions come in pairs: 1/2 is +x/-x, 3/4 is +y/-y
+        return direction % 2 == 1 ? direction + 1 : direction - 1;
+    }
+
+    /**
+     * Returns the number of steps from a tile to the nearest source.
+     *
+     * @param tileX The tile column
+     * @param tileY The tile row
+     * @return The distance in tiles, 0 on a source, or -1 if no source can be reached
+     */
+    public int getDistance(int tileX, int tileY) {
+        if (!grid.isInside(tileX, tileY)) return -1;
+        return distances[tileY * width + tileX];
+    }
+
+    /**
+     * Returns the x part of the first step from a tile towards the nearest source.
+     *
+     * @param tileX The tile column
+     * @param tileY The tile row
+     * @return -1, 0 or 1
+     */
+    public int getDirectionX(int tileX, int tileY) {
+        if (!grid.isInside(tileX, tileY)) return 0;
+        return DX[directions[tileY * width + tileX]];
+    }
+
+    /**
+     * Returns the y part of the first step from a tile towards the nearest source.
+     *
+     * @param tileX The tile column
+     * @param tileY The tile row
+     * @return -1, 0 or 1
+     */
+    public int getDirectionY(int tileX, int tileY) {
+        if (!grid.isInside(tileX, tileY)) return 0;
+        return DY[directions[tileY * width + tileX]];
+    }
+
+    /**
+     * @return The tile flags that cannot be walked through
+     */
+    public int getBlockingFlags() {
+        return blockingFlags;
+    }
+}
@@ -0,0 +1,492 @@
+package de.tum.cit.fop.maze;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.IntArray;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * The EnemySystem class stores all enemies of a level in parallel primitive arrays
+ * (struct of arrays) instead of one object per enemy.
+ * <p>
+ * An enemy is just an id: an index into the position, animation clock, type and chase state arrays.
+ * Updating the enemies near the player is a single loop over those arrays, and a spatial hash over
+ * the positions limits it to the enemies around the player. The system only holds game state; the
+ * MapLoader draws the enemies from it with the shared archetypes of the AnimationCache. The Enemy
+ * class is a thin view of one id for code that prefers working with objects.
+ * <p>
+ * An enemy starts chasing once the player is in range and in its line of sight, and keeps chasing
+ * while the player stays in range. The sight checks of a batch are answered up front by the world's
+ * LineOfSight, whose cache is not thread-safe.
+ * <p>
+ * A batch update runs in two phases. The decision phase only reads shared state (the map, the flow
+ * field, the sight results and the player) and writes each enemy's next state to its own slots, so large batches are
+ * split over the common ForkJoinPool. The commit phase then applies the results on the calling thread
+ * in batch order. No enemy reads another enemy's state, so the result is the same bit for bit as
+ * updating the enemies one after another.
+ */
+public class EnemySystem {
+    static final int TYPE_COUNT = AnimationCache.MOB_TYPES; // Types are the mob archetype ids
+    private static final float START_TIME = 0.2f;
+
+    static final float SIZE = 60; // Drawn width and height in pixels
+    static final float MOVEMENT_SPEED = 174f; // Pixels per second, 2.9 per frame at 60 FPS
+    static final float RANGE = 320f; // Detection range
+    static final float TOUCH_DISTANCE = SIZE / 2f; // Closer than this hurts the player
+    static final float HITBOX_SIZE = 44; // Collision box centred in the sprite
+    private static final float HITBOX_OFFSET = (SIZE - HITBOX_SIZE) / 2;
+    private static final float BUCKET_SIZE = 4 * GameWorld.TILE_SIZE; // Spatial hash bucket size in pixels
+    private static final int PARALLEL_THRESHOLD = 256; // Smaller batches are decided on the calling thread
+    private static final int PARTITION_SIZE = 64; // Enemies per fork-join task
+
+    private final TileTriggers triggers;
+    private final SpatialHash hash;
+    private final IntArray nearby = new IntArray(); // Reused result of spatial hash queries
+    private final TileCollider.Result contact = new TileCollider.Result(); // For decisions on the calling thread
+
+    // One entry per enemy, indexed by id
+    private float[] x; // Bottom-left corner
+    private float[] y;
+    private float[] previousX; // Position before the last simulation step, for interpolation
+    private float[] previousY;
+    private float[] stateTimes;
+    private byte[] types;
+    private boolean[] chasing;
+    private float[] nextX; // Decided but not yet committed state
+    private float[] nextY;
+    private boolean[] nextChasing;
+    private boolean[] seesPlayer; // Line of sight results of the current batch
+    private final IntArray lookingIds = new IntArray(); // Enemies in range whose sight is checked
+    private final IntArray lookingTiles = new IntArray();
+    private boolean[] lookResults = new boolean[16];
+    private int count;
+    private boolean parallel = true;
+
+    /**
+     * Creates an empty enemy system for a map.
+     *
+     * @param triggers    The map's tile triggers, told whenever an enemy changes tiles
+     * @param worldWidth  The map width in pixels
+     * @param worldHeight The map height in pixels
+     * @param capacity    The expected number of enemies
+     */
+    public EnemySystem(TileTriggers triggers, float worldWidth, float worldHeight, int capacity) {
+        this.triggers = triggers;
+
+        capacity = Math.max(capacity, 16);
+        x = new float[capacity];
+        y = new float[capacity];
+        previousX = new float[capacity];
+        previousY = new float[capacity];
+        stateTimes = new float[capacity];
+        types = new byte[capacity];
+        chasing = new boolean[capacity];
+        nextX = new float[capacity];
+        nextY = new float[capacity];
+        nextChasing = new boolean[capacity];
+        seesPlayer = new boolean[capacity];
+        hash = new SpatialHash(BUCKET_SIZE, worldWidth, worldHeight, capacity);
+    }
+
+    /**
+     * Returns the type id of an enemy type name.
+     *
+     * @param typeName One of "ghost", "blob", "spider" or "bat"
+     * @return The archetype id of the type
+     * @throws IllegalArgumentException if the type name is not recognised
+     */
+    public static int typeOf(String typeName) {
+        for (int type = 0; type < TYPE_COUNT; type++) {
+            if (AnimationCache.ARCHETYPES[type].equals(typeName)) return type;
+        }
+        throw new IllegalArgumentException("Unknown enemy type: " + typeName);
+    }
+
+    /**
+     * Adds an enemy.
+     *
+     * @param positionX The x-coordinate of the enemy's bottom-left corner in pixels
+     * @param positionY The y-coordinate of the enemy's bottom-left corner in pixels
+     * @param type      The type id, see {@link #typeOf(String)}
+     * @return The id of the new enemy
+     */
+    public int add(float positionX, float positionY, int type) {
+        if (type < 0 || type >= TYPE_COUNT) {
+            throw new IllegalArgumentException("Unknown enemy type id: " + type);
+        }
+        ensureCapacity(count + 1);
+        int id = count++;
+        x[id] = positionX;
+        y[id] = positionY;
+        previousX[id] = positionX;
+        previousY[id] = positionY;
+        stateTimes[id] = START_TIME;
+        types[id] = (byte) type;
+        chasing[id] = false;
+        hash.insert(id, positionX, positionY);
+        triggers.track(id, positionX + SIZE / 2, positionY + SIZE / 2);
+        return id;
+    }
+
+    private void ensureCapacity(int needed) {
+        if (needed <= x.length) return;
+        int capacity = Math.max(needed, x.length * 2);
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        previousX = Arrays.copyOf(previousX, capacity);
+        previousY = Arrays.copyOf(previousY, capacity);
+        stateTimes = Arrays.copyOf(stateTimes, capacity);
+        types = Arrays.copyOf(types, capacity);
+        chasing = Arrays.copyOf(chasing, capacity);
+        nextX = Arrays.copyOf(nextX, capacity);
+        nextY = Arrays.copyOf(nextY, capacity);
+        nextChasing = Arrays.copyOf(nextChasing, capacity);
+        seesPlayer = Arrays.copyOf(seesPlayer, capacity);
+    }
+
+    /**
+     * Removes all enemies.
+     */
+    public void clear() {
+        count = 0;
+        hash.clear();
+    }
+
+    /**
+     * Advances a batch of enemies: decides their moves, in parallel for large batches, then commits them in order.
+     *
+     * @param ids            The enemy ids; moves are committed in this order
+     * @param deltaTimes     The time to advance each enemy by in seconds, indexed by enemy id
+     * @param playerPosition The current position of the player
+     * @param world          The world, for the flow field, sight and collisions
+     */
+    public void update(IntArray ids, float[] deltaTimes, Vector2 playerPosition, GameWorld world) {
+        look(ids, playerPosition, world);
+        if (parallel && ids.size >= PARALLEL_THRESHOLD) {
+            ForkJoinPool.commonPool().invoke(new DecideTask(this, ids.items, 0, ids.size, deltaTimes, playerPosition, world));
+        } else {
+            for (int i = 0; i < ids.size; i++) {
+                int id = ids.get(i);
+                decide(id, deltaTimes[id], playerPosition, world, contact);
+            }
+        }
+        for (int i = 0; i < ids.size; i++) {
+            int id = ids.get(i);
+            commit(id, deltaTimes[id]);
+        }
+    }
+
+    /**
+     * Advances one enemy by one simulation step: it chases the player while the player is in range.
+     *
+     * @param id             The enemy id
+     * @param deltaTime      The length of the step in seconds
+     * @param playerPosition The current position of the player
+     * @param world          The world, for the flow field, sight and collisions
+     */
+    public void update(int id, float deltaTime, Vector2 playerPosition, GameWorld world) {
+        seesPlayer[id] = isInRange(id, playerPosition) && world.getLineOfSight().canSee(
+                tileOf(x[id] + SIZE / 2), tileOf(y[id] + SIZE / 2), tileOf(playerPosition.x), tileOf(playerPosition.y));
+        decide(id, deltaTime, playerPosition, world, contact);
+        commit(id, deltaTime);
+    }
+
+    /**
+     * Checks in one batch which enemies of a batch have the player in range and in sight.
+     */
+    private void look(IntArray ids, Vector2 playerPosition, GameWorld world) {
+        LineOfSight lineOfSight = world.getLineOfSight();
+        int width = lineOfSight.getWidth();
+        lookingIds.clear();
+        lookingTiles.clear();
+        for (int i = 0; i < ids.size; i++) {
+            int id = ids.get(i);
+            seesPlayer[id] = false;
+            // Only enemies that could start chasing need a ray
+            if (!chasing[id] && isInRange(id, playerPosition)) {
+                lookingIds.add(id);
+                lookingTiles.add(tileOf(y[id] + SIZE / 2) * width + tileOf(x[id] + SIZE / 2));
+            }
+        }
+        if (lookingIds.size == 0) return;
+
+        if (lookResults.length < lookingIds.size) {
+            lookResults = new boolean[Math.max(lookingIds.size, lookResults.length * 2)];
+        }
+        lineOfSight.canSee(lookingTiles, tileOf(playerPosition.x), tileOf(playerPosition.y), lookResults);
+        for (int i = 0; i < lookingIds.size; i++) {
+            seesPlayer[lookingIds.get(i)] = lookResults[i];
+        }
+    }
+
+    private static int tileOf(float coordinate) {
+        return (int) (coordinate / GameWorld.TILE_SIZE);
+    }
+
+    /**
+     * Decides the next state of an enemy without changing any shared state.
+     */
+    private void decide(int id, float deltaTime, Vector2 playerPosition, GameWorld world, TileCollider.Result contact) {
+        nextX[id] = x[id];
+        nextY[id] = y[id];
+        nextChasing[id] = isInRange(id, playerPosition) && (chasing[id] || seesPlayer[id]);
+        if (nextChasing[id]) {
+            chase(id, deltaTime, playerPosition, world, contact);
+        }
+    }
+
+    /**
+     * Applies the decided state of an enemy.
+     */
+    private void commit(int id, float deltaTime) {
+        previousX[id] = x[id];
+        previousY[id] = y[id];
+        chasing[id] = nextChasing[id];
+        stateTimes[id] += deltaTime;
+        if (nextX[id] != x[id] || nextY[id] != y[id]) {
+            x[id] = nextX[id];
+            y[id] = nextY[id];
+            hash.move(id, x[id], y[id]);
+            triggers.track(id, x[id] + SIZE / 2, y[id] + SIZE / 2);
+        }
+    }
+
+    /**
+     * Decides the next position of an enemy one step towards the player.
+     * It walks to the centre of the neighbouring tile the map's flow field points to,
+     * and heads straight for the player once it is on the player's tile.
+     * Its hitbox slides along walls instead of stopping at them.
+     */
+    private void chase(int id, float deltaTime, Vector2 playerPosition, GameWorld world, TileCollider.Result contact) {
+        FlowField flowField = world.getFlowField();
+        float centerX = x[id] + SIZE / 2;
+        float centerY = y[id] + SIZE / 2;
+        int tileX = (int) (centerX / GameWorld.TILE_SIZE);
+        int tileY = (int) (centerY / GameWorld.TILE_SIZE);
+
+        float targetX = playerPosition.x;
+        float targetY = playerPosition.y;
+        if (flowField.getDistance(tileX, tileY) > 0) {
+            targetX = (tileX + flowField.getDirectionX(tileX, tileY) + 0.5f) * GameWorld.TILE_SIZE;
+            targetY = (tileY + flowField.getDirectionY(tileX, tileY) + 0.5f) * GameWorld.TILE_SIZE;
+        }
+
+        float dx = targetX - centerX;
+        float dy = targetY - centerY;
+        float distance = (float) Math.sqrt(dx * dx + dy * dy);
+        if (distance < 0.001f) return;
+
+        // Never overshoot the target point
+        float step = Math.min(MOVEMENT_SPEED * deltaTime, distance) / distance;
+        float stepX = dx * step;
+        float stepY = dy * step;
+
+        world.getCollider().move(x[id] + HITBOX_OFFSET, y[id] + HITBOX_OFFSET, HITBOX_SIZE, HITBOX_SIZE,
+                stepX, stepY, TileGrid.BLOCKS_ENEMY, contact);
+        nextX[id] = contact.x - HITBOX_OFFSET;
+        nextY[id] = contact.y - HITBOX_OFFSET;
+    }
+
+    /**
+     * Decides the enemies of a range of a batch, splitting the range until it is small enough.
+     */
+    private static final class DecideTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final EnemySystem system;
+        private final int[] ids;
+        private final int from;
+        private final int to;
+        private final float[] deltaTimes;
+        private final Vector2 playerPosition;
+        private final GameWorld world;
+
+        DecideTask(EnemySystem system, int[] ids, int from, int to, float[] deltaTimes,
+                   Vector2 playerPosition, GameWorld world) {
+            this.system = system;
+            this.ids = ids;
+            this.from = from;
+            this.to = to;
+            this.deltaTimes = deltaTimes;
+            this.playerPosition = playerPosition;
+            this.world = world;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= PARTITION_SIZE) {
+                TileCollider.Result contact = new TileCollider.Result();
+                for (int i = from; i < to; i++) {
+                    system.decide(ids[i], deltaTimes[ids[i]], playerPosition, world, contact);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new DecideTask(system, ids, from, middle, deltaTimes, playerPosition, world),
+                    new DecideTask(system, ids, middle, to, deltaTimes, playerPosition, world));
+        }
+    }
+
+    /**
+     * Checks if any enemy touches the player. Only the enemies in the buckets around the player are checked.
+     *
+     * @param playerPosition The current position of the player
+     * @return true if at least one enemy touches the player
+     */
+    public boolean isTouching(Vector2 playerPosition) {
+        nearby.clear();
+        hash.query(playerPosition.x - TOUCH_DISTANCE, playerPosition.y - TOUCH_DISTANCE,
+                playerPosition.x + TOUCH_DISTANCE, playerPosition.y + TOUCH_DISTANCE, nearby);
+        for (int i = 0; i < nearby.size; i++) {
+            if (isTouching(nearby.get(i), playerPosition)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks if an enemy is in contact with the player.
+     *
+     * @param id             The enemy id
+     * @param playerPosition The current position of the player
+     * @return true if the player is closer than TOUCH_DISTANCE
+     */
+    public boolean isTouching(int id, Vector2 playerPosition) {
+        return playerPosition.dst2(x[id], y[id]) < TOUCH_DISTANCE * TOUCH_DISTANCE;
+    }
+
+    /**
+     * Checks if the player is within an enemy's detection range.
+     *
+     * @param id             The enemy id
+     * @param playerPosition The current position of the player
+     * @return true if the player is closer than RANGE
+     */
+    public boolean isInRange(int id, Vector2 playerPosition) {
+        return playerPosition.dst2(x[id], y[id]) < RANGE * RANGE;
+    }
+
+    /**
+     * Returns a view object for one enemy. Views are created on demand and hold no state of their own.
+     *
+     * @param id The enemy id
+     * @return The enemy view
+     */
+    public Enemy get(int id) {
+        if (id < 0 || id >= count) {
+            throw new IllegalArgumentException("No enemy with id " + id);
+        }
+        return new Enemy(this, id);
+    }
+
+    /**
+     * The positions, clocks, types and chase states of all enemies, for GameWorld snapshots.
+     */
+    static final class State {
+        private final int count;
+        private final float[] x;
+        private final float[] y;
+        private final float[] previousX;
+        private final float[] previousY;
+        private final float[] stateTimes;
+        private final byte[] types;
+        private final boolean[] chasing;
+
+        private State(EnemySystem system) {
+            count = system.count;
+            x = Arrays.copyOf(system.x, count);
+            y = Arrays.copyOf(system.y, count);
+            previousX = Arrays.copyOf(system.previousX, count);
+            previousY = Arrays.copyOf(system.previousY, count);
+            stateTimes = Arrays.copyOf(system.stateTimes, count);
+            types = Arrays.copyOf(system.types, count);
+            chasing = Arrays.copyOf(system.chasing, count);
+        }
+    }
+
+    /**
+     * @return A copy of the state of all enemies
+     */
+    State saveState() {
+        return new State(this);
+    }
+
+    /**
+     * Puts all enemies back into a saved state. The tile triggers are restored separately.
+     *
+     * @param state A state returned by saveState() of this system
+     */
+    void restoreState(State state) {
+        ensureCapacity(state.count);
+        count = state.count;
+        System.arraycopy(state.x, 0, x, 0, count);
+        System.arraycopy(state.y, 0, y, 0, count);
+        System.arraycopy(state.previousX, 0, previousX, 0, count);
+        System.arraycopy(state.previousY, 0, previousY, 0, count);
+        System.arraycopy(state.stateTimes, 0, stateTimes, 0, count);
+        System.arraycopy(state.types, 0, types, 0, count);
+        System.arraycopy(state.chasing, 0, chasing, 0, count);
+        hash.clear();
+        for (int id = 0; id < count; id++) {
+            hash.insert(id, x[id], y[id]);
+        }
+    }
+
+    /**
+     * Turns the parallel decision phase on or off. Both give the same results.
+     *
+     * @param parallel true to split large batches over the ForkJoinPool
+     */
+    public void setParallel(boolean parallel) {
+        this.parallel = parallel;
+    }
+
+    /**
+     * @return The spatial hash of the enemies by position, ids are enemy ids
+     */
+    SpatialHash getHash() {
+        return hash;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public float getX(int id) {
+        return x[id];
+    }
+
+    public float getY(int id) {
+        return y[id];
+    }
+
+    /**
+     * @param id The enemy id
+     * @return The x-coordinate before the enemy's last update, for drawing between updates
+     */
+    public float getPreviousX(int id) {
+        return previousX[id];
+    }
+
+    /**
+     * @param id The enemy id
+     * @return The y-coordinate before the enemy's last update, for drawing between updates
+     */
+    public float getPreviousY(int id) {
+        return previousY[id];
+    }
+
+    public float getStateTime(int id) {
+        return stateTimes[id];
+    }
+
+    public int getType(int id) {
+        return types[id];
+    }
+
+    public boolean isChasing(int id) {
+        return chasing[id];
+    }
+}
@@ -0,0 +1,96 @@
+package de.tum.cit.fop.maze;
+
+/**
+ * The FlowField class tells every tile of the map which way leads to the player.
+ * <p>
+ * It is a DistanceMap over the tiles enemies can walk on, with the player's tile as its only source.
+ * The map is searched again when the player moves to another tile or the map changes, and all
+ * enemies then look up their next step in constant time, no matter how many of them are chasing.
+ * <p>
+ * Changed tiles are not updated in place: where several ways are equally short, an incremental update
+ * can pick another step than a full search. Searching in full keeps the field a function of the grid
+ * and the target only, so a restored snapshot steers the enemies exactly as the original run did.
+ */
+public class FlowField {
+    private final TileGrid grid;
+    private final DistanceMap distances; // Steps to the player's tile
+
+    private int targetX = -1;
+    private int targetY = -1;
+    private boolean dirty = true;
+
+    /**
+     * Creates a flow field for the given grid. It has no target until the first update.
+     *
+     * @param grid The tile grid enemies move on
+     */
+    public FlowField(TileGrid grid) {
+        this.grid = grid;
+        this.distances = new DistanceMap(grid, TileGrid.BLOCKS_ENEMY, new int[0]);
+    }
+
+    /**
+     * Points the field at the given tile. The search only runs if the target tile is new
+     * or the map has been invalidated since the last search.
+     *
+     * @param tileX The target tile column
+     * @param tileY The target tile row
+     * @return true if the field was recomputed
+     */
+    public boolean update(int tileX, int tileY) {
+        if (!dirty && tileX == targetX && tileY == targetY) {
+            return false;
+        }
+        boolean retarget = tileX != targetX || tileY != targetY;
+        targetX = tileX;
+        targetY = tileY;
+        dirty = false;
+
+        if (retarget) {
+            distances.setSources(grid.isInside(tileX, tileY) ? new int[]{tileY * grid.getWidth() + tileX} : new int[0]);
+        } else {
+            distances.rebuild();
+        }
+        return true;
+    }
+
+    /**
+     * Forces the next update to search again, e.g. after a tile has changed.
+     */
+    public void invalidate() {
+        dirty = true;
+    }
+
+    /**
+     * Returns the number of steps from a tile to the target.
+     *
+     * @param tileX The tile column
+     * @param tileY The tile row
+     * @return The distance in tiles, 0 on the target itself, or -1 if the target cannot be reached
+     */
+    public int getDistance(int tileX, int tileY) {
+        return distances.getDistance(tileX, tileY);
+    }
+
+    /**
+     * Returns the x part of the step that leads from a tile towards the target.
+     *
+     * @param tileX The tile column
+     * @param tileY The tile row
+     * @return -1, 0 or 1
+     */
+    public int getDirectionX(int tileX, int tileY) {
+        return distances.getDirectionX(tileX, tileY);
+    }
+
+    /**
+     * Returns the y part of the step that leads from a tile towards the target.
+     *
+     * @param tileX The tile column
+     * @param tileY The tile row
+     * @return -1, 0 or 1
+     */
+    public int getDirectionY(int tileX, int tileY) {
+        return distances.getDirectionY(tileX, tileY);
+    }
+}
@@ -53,9 +53,8 @@ private void setupUI() {
         restartButton.addListener(new ChangeListener() {
             @Override
             public void changed(ChangeEvent event, Actor actor) {
-                GameScreen gameScreen = new GameScreen(game, game.getGameScreen().getCurrentLevel());
-                game.setGameScreen(gameScreen);
-                game.pushScreen(gameScreen);
+                game.getGameScreen().restart(); // Roll the level back instead of loading it again
+                game.popScreen();
             }
         });
 
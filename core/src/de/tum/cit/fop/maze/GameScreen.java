@@ -4,27 +4,31 @@
 import com.badlogic.gdx.Input;
 import com.badlogic.gdx.InputAdapter;
 import com.badlogic.gdx.Screen;
+import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.graphics.OrthographicCamera;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.graphics.g2d.Animation;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.profiling.GLProfiler;
+import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.IntArray;
 import com.badlogic.gdx.utils.ScreenUtils;
-import java.util.List;
+import com.badlogic.gdx.utils.TimeUtils;
+import java.io.IOException;
+import java.io.OutputStream;
 
 /**
  * GameScreen class implements the main gameplay screen of the game.
- * This screen handles the core gameplay mechanics including character movement,
- * collision detection, rendering, and game state management.
+ * The game rules live in a GameWorld; this screen feeds it the keyboard input, steps it,
+ * and draws it, and it reacts to the world's events with sounds and screen transitions.
  *
  * The screen manages:
- * - Character movement and animation
+ * - Character animation
  * - Camera controls and zooming
- * - Lives system and damage handling
- * - Status effects (damage, healing, buffs)
+ * - Tints for status effects (damage, healing, buffs)
  * - HUD elements (health, statue status, timer)
- * - Collision detection with walls, traps, and exits
  * - Game state transitions
  */
 public class GameScreen implements Screen {
@@ -33,15 +37,23 @@ public class GameScreen implements Screen {
     private final BitmapFont font;
     private static final float DEFAULT_FONT_SCALE = 1.0f;
 
-    // Character position and movement
-    private float characterX = 400; // Starting X position
-    private float characterY = 300; // Starting Y position
-    public Vector2 playerPosition = new Vector2(characterX, characterY);
-    private float movementSpeed = 200; // Pixels per second
-
     // Character rendering constants
     private static final float CHARACTER_SIZE = 64; // Base size for character
 
+    // Fixed-timestep simulation; frames draw between the last two steps
+    private static final float STEP = 1 / 60f; // Seconds per simulation step
+    private static final float MAX_FRAME_TIME = 0.25f; // Longer frames are clamped so the simulation can catch up
+    private float accumulator = 0; // Frame time not yet simulated
+    private final GameWorld world;
+    private final PlayerInput input = new PlayerInput(); // Read from the keyboard once per frame
+
+    // Input recording (F6) and replay of the last recording (F7)
+    private static final String REPLAY_FOLDER = "replays/";
+    private InputRecording recording; // The attempt being recorded, or null
+    private InputRecording lastRecording; // The last finished recording, or null
+    private Replay replay; // Plays lastRecording back instead of the keyboard, or null
+    private Bot bot; // Plays instead of the keyboard (F8), or null
+
     // Camera zoom settings
     private final float MIN_ZOOM = 0.5f;
     private final float MAX_ZOOM = 1.1f;
@@ -50,20 +62,10 @@ public class GameScreen implements Screen {
 
     // Animation state tracking
     private float stateTime = 0; // Tracks time for animations
-    private Direction currentDirection = Direction.DOWN; // Tracks current facing direction
-    private boolean isMoving = false; // Tracks if character is moving
-    public boolean isFacingUp = false; // Tracks where the Player is facing to
-
-    // Enum for tracking character direction
-    private enum Direction {
-        UP, DOWN, LEFT, RIGHT
-    }
 
     private final MapLoader mapLoader;
     private final int currentLevel;
 
-    private static final int MAX_LIVES = 3;
-    private int currentLives;
     private TextureRegion fullHeartTexture;
     private TextureRegion emptyHeartTexture;
     private final OrthographicCamera hudCamera;
@@ -76,40 +78,22 @@ private enum Direction {
     private float heartSpacing;
     private float hudMargin;
 
-    // Damage effect
-    private boolean isDamaged = false;
-    private float damageTimer = 0;
-    private static final float DAMAGE_DURATION = 1.0f; // Duration in seconds
-    private static final float DAMAGE_RED_TINT = 0.7f; // How red the tint should be (0-1)
-
-    // Healing effect
-    private boolean isHealed = false;
-    private float healTimer = 0;
-    private static final float HEAL_DURATION = 1.0f; // Duration in seconds
-    private static final float HEAL_GREEN_TINT = 0.7f; // How green the tint should be (0-1)
-
-    //Slowing down effect
-    private boolean isSlowedDown = false;
-    private float slowTimer = 0;
-    private static final float SLOW_DURATION = 1.0f;
-    private static final float SLOW_CYAN_TINT = 0.7f;
-
-
-    private float trapDamageCooldown = 0f;
-    private static final float TRAP_DAMAGE_COOLDOWN_DURATION = 1.5f; // Seconds between trap damage
-    private boolean isInvulnerable = false;
-
-    private static final float SPRINT_MULTIPLIER = 1.28f; // Speed multiplier when sprinting
-
-    private boolean hasBuffActive = false;
-    private float buffTimer = 0;
-    private static final float BUFF_DURATION = 3.0f;
+    // Effect tints, how strongly the character is coloured when an effect starts (0-1)
+    private static final float DAMAGE_RED_TINT = 0.7f;
+    private static final float HEAL_GREEN_TINT = 0.7f;
     private static final float BUFF_GOLD_TINT = 0.7f;
 
-    //Timer
-    private float elapsedTime = 0;
-
     private DirectionIndicator directionIndicator;
+    private final IntArray statueHint = new IntArray(); // Hint path to the statue, see GameWorld.findStatueHint
+    private int statueHintTile = -1; // Player tile the hint was found from
+
+    // Visible world area, refreshed every frame after the camera moves
+    private final ViewBounds viewBounds = new ViewBounds();
+
+    // Render stats overlay, toggled with F3
+    private boolean showRenderStats = false;
+    private int lastDrawCalls = 0;
+    private int lastTextureBindings = 0;
 
     /**
      * Basic constructor that initialises the game screen with default level 1.
@@ -130,18 +114,36 @@ public GameScreen(MazeRunnerGame game, int levelNumber) {
         this.game = game;
         this.currentLevel = levelNumber;
 
-        // Initialize map loader and get start position
-        mapLoader = new MapLoader();
-        mapLoader.loadMap(levelNumber);
+        // Create the world of the level and the map renderer observing it
+        world = new GameWorld(game.getLevelLoader().load(game.getLevelManifest().getLevel(levelNumber)),
+                MathUtils.random.nextLong());
+        mapLoader = new MapLoader(game.getSpriteAtlas(), game.getAnimationCache());
+        mapLoader.loadMap(world);
+        world.addListener(new GameWorld.Listener() {
+            @Override
+            public void playerDamaged(int livesLeft) {
+                game.playDamageSound();
+            }
+
+            @Override
+            public void playerDied() {
+                game.playDeathSound(); // Play death sound
+                game.pushScreen(new GameOverScreen(game));
+            }
 
-        // Set initial character position to map start position
-        Vector2 startPos = mapLoader.getStartPosition();
-        if (startPos != null) {
-            characterX = startPos.x;
-            characterY = startPos.y;
-        }
+            @Override
+            public void statueCollected() {
+                game.playStatueSound(); // Play statue collection sound
+            }
 
-        directionIndicator = new DirectionIndicator();
+            @Override
+            public void levelCompleted(float elapsedTime) {
+                game.playVictorySound(); // Play victory sound
+                game.pushScreen(new VictoryScreen(game, elapsedTime)); // Pass elapsedTime to VictoryScreen constructor
+            }
+        });
+
+        directionIndicator = new DirectionIndicator(game.getSpriteAtlas());
 
         // Create and configure the camera with proper aspect ratio
         float w = Gdx.graphics.getWidth();
@@ -149,6 +151,9 @@ public GameScreen(MazeRunnerGame game, int levelNumber) {
         camera = new OrthographicCamera();
         camera.setToOrtho(false, w, w * (h / w)); // Maintain aspect ratio
         camera.zoom = lastZoomLevel;  // Use the persistent zoom level
+        camera.position.set(world.getPlayerPosition().x, world.getPlayerPosition().y, 0);
+        camera.update();
+        viewBounds.update(camera, MIN_ZOOM, MAX_ZOOM); // The first step runs before the first frame is drawn
 
         // Get the font from the game's skin
         font = game.getSkin().getFont("font");
@@ -167,13 +172,9 @@ public boolean scrolled(float amountX, float amountY) {
             }
         });
 
-        // Initialize lives system
-        currentLives = MAX_LIVES;
-
-        // Load heart textures from sprite sheet
-        Texture objectsTexture = new Texture(Gdx.files.internal("objects.png"));
-        fullHeartTexture = new TextureRegion(objectsTexture, 63, 0, 15, 17);
-        emptyHeartTexture = new TextureRegion(objectsTexture, 127, 0, 15, 17);
+        // Get heart textures from the objects sheet
+        fullHeartTexture = game.getSpriteAtlas().getRegion("objects", 63, 0, 15, 17);
+        emptyHeartTexture = game.getSpriteAtlas().getRegion("objects", 127, 0, 15, 17);
 
         // Create separate camera for HUD
         hudCamera = new OrthographicCamera();
@@ -197,6 +198,8 @@ private void updateHUDSizes() {
 
     /**
      * Renders a single frame of the game.
+     * The game logic runs in fixed steps of STEP seconds, as many as the frame time covers,
+     * and the frame is drawn between the last two steps so movement stays smooth at any frame rate.
      * Handles all rendering operations including:
      * - Map rendering
      * - Character animation and movement
@@ -209,100 +212,103 @@ private void updateHUDSizes() {
      */
     @Override
     public void render(float delta) {
-        // Clear the screen first
-        ScreenUtils.clear(0, 0, 0, 1);
-
-        //Update the elapsed time
-        elapsedTime += delta;
-
-        // Update animation state time
-        stateTime += delta;
-
-        // Update damage, heal, and buff timers...
-        if (isDamaged) {
-            damageTimer += delta;
-            if (damageTimer >= DAMAGE_DURATION) {
-                isDamaged = false;
-                damageTimer = 0;
-            }
+        // Keep the previous frame's render stats before the counters are reset
+        GLProfiler profiler = game.getProfiler();
+        if (profiler.isEnabled()) {
+            lastDrawCalls = profiler.getDrawCalls();
+            lastTextureBindings = profiler.getTextureBindings();
+            profiler.reset();
         }
 
-        if (isSlowedDown) {
-            slowTimer += delta;
-            if (slowTimer >= SLOW_DURATION) {
-                isSlowedDown = false;
-                slowTimer = 0;
-            }
-        }
+        // Clear the screen first
+        ScreenUtils.clear(0, 0, 0, 1);
 
-        // Update heal timer if character is healed
-        if (isHealed) {
-            healTimer += delta;
-            if (healTimer >= HEAL_DURATION) {
-                isHealed = false;
-                healTimer = 0;
-            }
+        if (Gdx.input.isKeyJustPressed(Input.Keys.ESCAPE)) {
+            game.pushScreen(new PauseMenuScreen(game));
         }
 
-        if (hasBuffActive) {
-            buffTimer += delta;
-            if (buffTimer >= BUFF_DURATION) {
-                hasBuffActive = false;
-                buffTimer = 0;
-                isInvulnerable = false;
+        // Simulate the elapsed time in fixed steps, stopping when a step leaves this screen
+        readInput();
+        accumulator += Math.min(delta, MAX_FRAME_TIME);
+        while (accumulator >= STEP && game.getScreen() == this) {
+            if (replay != null) {
+                replay.step();
+            } else {
+                if (bot != null) {
+                    bot.decide(world, input);
+                }
+                if (recording != null) {
+                    recording.record(input);
+                }
+                world.step(input, STEP);
             }
+            // The debug keys act in a single step
+            input.damage = false;
+            input.heal = false;
+            accumulator -= STEP;
         }
+        float alpha = accumulator / STEP;
+        Vector2 playerPosition = world.getPlayerPosition();
+        float drawX = world.getPreviousPlayerX() + (playerPosition.x - world.getPreviousPlayerX()) * alpha;
+        float drawY = world.getPreviousPlayerY() + (playerPosition.y - world.getPreviousPlayerY()) * alpha;
 
-        // Handle character movement and update animation state
-        handleInput(delta);
+        // Update animation state time
+        stateTime += delta;
 
         // Update game camera position to follow character
-        camera.position.set(characterX, characterY, 0);
+        camera.position.set(drawX, drawY, 0);
         camera.update();
+        viewBounds.update(camera, MIN_ZOOM, MAX_ZOOM);
 
         // First render the game world with game camera
         game.getSpriteBatch().setProjectionMatrix(camera.combined);
         game.getSpriteBatch().begin();
 
         // Render map
-        mapLoader.renderMap(game, playerPosition);
+        mapLoader.renderMap(game, camera, viewBounds, alpha);
 
         // Update direction indicator
         directionIndicator.update(delta);
 
-        // Update and render direction indicator if statue is collected
-        if (mapLoader.isStatueCollected()) {
+        // Update and render direction indicator towards the exit if statue is collected, otherwise towards the statue
+        if (world.isStatueCollected()) {
             directionIndicator.update(delta);
-            directionIndicator.render(
-                    game.getSpriteBatch(),
-                    new Vector2(characterX, characterY),
-                    mapLoader.getExitPositions()
-            );
+            directionIndicator.render(game.getSpriteBatch(), drawX, drawY, world.getExitDistances());
+        } else {
+            // The hint only changes when the player enters another tile
+            int mapWidth = world.getGrid().getWidth();
+            int tile = (int) (playerPosition.y / GameWorld.TILE_SIZE) * mapWidth + (int) (playerPosition.x / GameWorld.TILE_SIZE);
+            if (tile != statueHintTile) {
+                world.findStatueHint(statueHint);
+                statueHintTile = tile;
+            }
+            directionIndicator.update(delta);
+            directionIndicator.render(game.getSpriteBatch(), drawX, drawY, statueHint, mapWidth);
         }
 
         // Get and draw the character animation frame
         TextureRegion currentFrame = getAnimationFrame();
 
         // Apply tints for effects
-        if (isDamaged) {
-            float tintFactor = 1 - (damageTimer / DAMAGE_DURATION);
+        if (world.isDamaged()) {
+            float tintFactor = 1 - (world.getDamageTimer() / GameWorld.DAMAGE_DURATION);
             game.getSpriteBatch().setColor(1f, 1f - (DAMAGE_RED_TINT * tintFactor), 1f - (DAMAGE_RED_TINT * tintFactor), 1f);
-        } else if (isHealed) {
-            float tintFactor = 1 - (healTimer / HEAL_DURATION);
+        } else if (world.isHealed()) {
+            float tintFactor = 1 - (world.getHealTimer() / GameWorld.HEAL_DURATION);
             game.getSpriteBatch().setColor(1f - (HEAL_GREEN_TINT * tintFactor), 1f, 1f - (HEAL_GREEN_TINT * tintFactor), 1f);
-        } else if (hasBuffActive) {
-            float tintFactor = 1 - (buffTimer / BUFF_DURATION);
+        } else if (world.hasBuffActive()) {
+            float tintFactor = 1 - (world.getBuffTimer() / GameWorld.BUFF_DURATION);
             game.getSpriteBatch().setColor(1f, 1f - (BUFF_GOLD_TINT * tintFactor), 0f, 1f);
-        } else if (isSlowedDown) {
-            float tintFactor = 1 - (slowTimer / SLOW_DURATION);
+        } else if (world.isSlowedDown()) {
+            float tintFactor = 1 - (world.getSlowTimer() / GameWorld.SLOW_DURATION);
             game.getSpriteBatch().setColor(0f, 1f - (BUFF_GOLD_TINT * tintFactor), 1f, 1f);
         }
 
         // Draw character
         game.getSpriteBatch().draw(
                 currentFrame,
-                characterX - CHARACTER_SIZE / 2,
-                characterY - CHARACTER_SIZE / 2,
+                drawX - CHARACTER_SIZE / 2,
+                drawY - CHARACTER_SIZE / 2,
                 CHARACTER_SIZE,
                 CHARACTER_SIZE
         );
@@ -320,10 +326,10 @@ public void render(float delta) {
         renderLives();
 
         // Render statue status
-        String statueStatus = "STATUE: " + (mapLoader.isStatueCollected() ? "COLLECTED" : "NOT COLLECTED");
+        String statueStatus = "STATUE: " + (world.isStatueCollected() ? "COLLECTED" : "NOT COLLECTED");
         BitmapFont font = game.getSkin().getFont("font");
-        font.setColor(mapLoader.isStatueCollected() ? 0.0f : 1.0f,
-                mapLoader.isStatueCollected() ? 1.0f : 0.0f,
+        font.setColor(world.isStatueCollected() ? 0.0f : 1.0f,
+                world.isStatueCollected() ? 1.0f : 0.0f,
                 0.0f, 1.0f);
 
         // Position the statue status text in the top-left corner with padding
@@ -342,30 +348,65 @@ public void render(float delta) {
         renderLives();
 
         // Display timer in HUD
-        String timerText = String.format("Time: %.1f s", elapsedTime);
+        String timerText = String.format("Time: %.1f s", world.getElapsedTime());
         font.draw(game.getSpriteBatch(), timerText,
                 hudCamera.viewportWidth - 200,
                 hudCamera.viewportHeight - hudMargin);
+        if (recording != null || replay != null || bot != null) {
+            font.draw(game.getSpriteBatch(), recording != null ? "REC" : replay != null ? "REPLAY" : "BOT",
+                    hudCamera.viewportWidth - 200,
+                    hudCamera.viewportHeight - hudMargin - font.getLineHeight());
+        }
+
+        // Display draw calls and texture binds of the previous frame
+        if (showRenderStats) {
+            String statsText = "Draw calls: " + lastDrawCalls + "  Texture binds: " + lastTextureBindings;
+            font.draw(game.getSpriteBatch(), statsText,
+                    hudCamera.viewportWidth - 420,
+                    hudMargin + font.getLineHeight());
+
+            // Entities updated per distance tier in the last step
+            String aiText = "AI near: " + world.getAIProcessed(AIScheduler.NEAR)
+                    + "  mid: " + world.getAIProcessed(AIScheduler.MID)
+                    + "  far: " + world.getAIProcessed(AIScheduler.FAR)
+                    + "  deferred: " + world.getAIDeferred();
+            font.draw(game.getSpriteBatch(), aiText,
+                    hudCamera.viewportWidth - 420,
+                    hudMargin + 2 * font.getLineHeight());
+        }
 
         game.getSpriteBatch().end();
 
         // Check for damage and heal input
-        if (Gdx.input.isKeyJustPressed(Input.Keys.O)) {
-            takeDamage();
+        if (Gdx.input.isKeyJustPressed(Input.Keys.F3)) {
+            toggleRenderStats();
         }
-        if (Gdx.input.isKeyJustPressed(Input.Keys.I)) {
-            heal();
+        if (Gdx.input.isKeyJustPressed(Input.Keys.F6)) {
+            toggleRecording();
         }
-
-        // Update trap damage cooldown
-        if (isInvulnerable && !hasBuffActive) {
-            trapDamageCooldown -= delta;
-            if (trapDamageCooldown <= 0) {
-                isInvulnerable = false;
-            }
+        if (Gdx.input.isKeyJustPressed(Input.Keys.F7)) {
+            toggleReplay();
+        }
+        if (Gdx.input.isKeyJustPressed(Input.Keys.F8)) {
+            toggleBot();
         }
     }
 
+    /**
+     * Reads the movement keys into the input the world is stepped with.
+     */
+    private void readInput() {
+        input.left = Gdx.input.isKeyPressed(Input.Keys.LEFT) || Gdx.input.isKeyPressed(Input.Keys.A);
+        input.right = Gdx.input.isKeyPressed(Input.Keys.RIGHT) || Gdx.input.isKeyPressed(Input.Keys.D);
+        input.down = Gdx.input.isKeyPressed(Input.Keys.DOWN) || Gdx.input.isKeyPressed(Input.Keys.S);
+        input.up = Gdx.input.isKeyPressed(Input.Keys.UP) || Gdx.input.isKeyPressed(Input.Keys.W);
+        input.sprint = Gdx.input.isKeyPressed(Input.Keys.SHIFT_LEFT) || Gdx.input.isKeyPressed(Input.Keys.SHIFT_RIGHT);
+
+        // Check for damage and heal input; kept until a step has used them
+        input.damage |= Gdx.input.isKeyJustPressed(Input.Keys.O);
+        input.heal |= Gdx.input.isKeyJustPressed(Input.Keys.I);
+    }
+
     /**
      * Renders the lives display in the HUD.
      * Draws heart icons representing the current and maximum lives.
@@ -374,8 +415,8 @@ private void renderLives() {
         float x = hudMargin;
         float y = hudMargin;
 
-        for (int i = 0; i < MAX_LIVES; i++) {
-            TextureRegion heartTexture = i < currentLives ? fullHeartTexture : emptyHeartTexture;
+        for (int i = 0; i < GameWorld.MAX_LIVES; i++) {
+            TextureRegion heartTexture = i < world.getLives() ? fullHeartTexture : emptyHeartTexture;
             game.getSpriteBatch().draw(
                     heartTexture,
                     x,
@@ -388,191 +429,105 @@ private void renderLives() {
     }
 
     /**
-     * Handles damage taken by the player.
-     * Reduces lives, applies damage effects, and handles game over condition.
-     * Also manages invulnerability frames and sound effects.
+     * Shows or hides the render stats overlay.
+     * The GL profiler is only enabled while the overlay is visible.
      */
-    public void takeDamage() {
-        if (!isInvulnerable && currentLives > 0) {
-            currentLives--;
-            isDamaged = true;
-            damageTimer = 0;
-
-            // Play damage sound only if character is still alive after taking damage
-            if (currentLives != 0) {
-                game.playDamageSound();
-            }
-
-            // Only set invulnerability if we're not already buffed
-            if (!hasBuffActive) {
-                isInvulnerable = true;
-                trapDamageCooldown = TRAP_DAMAGE_COOLDOWN_DURATION;
-            }
-
-            if (currentLives == 0) {
-                game.playDeathSound(); // Play death sound
-                game.pushScreen(new GameOverScreen(game));
-            }
+    private void toggleRenderStats() {
+        showRenderStats = !showRenderStats;
+        if (showRenderStats) {
+            game.getProfiler().enable();
+            game.getProfiler().reset();
+        } else {
+            game.getProfiler().disable();
         }
     }
 
     /**
-     * Handles healing of the player.
-     * Increases lives if below maximum and applies healing visual effect.
+     * Starts recording the level from its start, or stops the recording and saves it.
+     * The world runs in deterministic mode while recording, so the recording replays exactly.
      */
-    public void heal() {
-        if (currentLives < MAX_LIVES) {
-            currentLives++;
-            isHealed = true;
-            healTimer = 0;
+    private void toggleRecording() {
+        if (recording == null) {
+            replay = null;
+            recording = new InputRecording(currentLevel, world.getSeed(), STEP);
+            restart();
+            return;
         }
+        saveRecording(recording);
+        lastRecording = recording;
+        recording = null;
+        world.setDeterministic(false);
     }
 
     /**
-     * Activates a buff effect on the player.
-     * Provides temporary invulnerability and visual effects.
+     * Starts replaying the last recording from the start of the level, or stops the replay and
+     * restarts the level for normal play. A recording in progress is finished first.
      */
-    private void activateBuff() {
-        hasBuffActive = true;
-        buffTimer = 0;
-        isInvulnerable = true;
-        trapDamageCooldown = 0; // Reset any existing damage cooldown
+    private void toggleReplay() {
+        if (replay != null) {
+            replay = null;
+            restart();
+            return;
+        }
+        if (recording != null) {
+            toggleRecording();
+        }
+        if (lastRecording == null) return;
+        bot = null;
+        replay = new Replay(world, lastRecording);
+        accumulator = 0;
+        stateTime = 0;
     }
 
-
     /**
-     * Processes keyboard input and updates character position.
-     * Handles movement, collision detection, and interaction with game elements.
-     *
-     * @param delta Time since last frame in seconds
+     * Lets the PathBot play from where the player stands, or hands the controls back.
+     * A replay in progress stops first; a recording keeps running and records the bot's input.
      */
-    private void handleInput(float delta) {
-        // Check if shift is pressed for sprint
-        float currentSpeed = movementSpeed * (Gdx.input.isKeyPressed(Input.Keys.SHIFT_LEFT) || Gdx.input.isKeyPressed(Input.Keys.SHIFT_RIGHT)
-                ? SPRINT_MULTIPLIER : 1.0f);
-
-        float movement = currentSpeed * delta;
-        float newX = characterX;
-        float newY = characterY;
-
-        if (Gdx.input.isKeyJustPressed(Input.Keys.ESCAPE)) {
-            game.pushScreen(new PauseMenuScreen(game));
+    private void toggleBot() {
+        if (bot != null) {
+            bot = null;
             return;
         }
-
-        if (currentLives == 0) {
-            game.pushScreen(new GameOverScreen(game));
-            return;
-        }
-
-        isMoving = false;
-
-        if (Gdx.input.isKeyPressed(Input.Keys.LEFT) || Gdx.input.isKeyPressed(Input.Keys.A)) {
-            newX = characterX - movement;
-            currentDirection = Direction.LEFT;
-            isMoving = true;
-        }
-        if (Gdx.input.isKeyPressed(Input.Keys.RIGHT) || Gdx.input.isKeyPressed(Input.Keys.D)) {
-            newX = characterX + movement;
-            currentDirection = Direction.RIGHT;
-            isMoving = true;
-        }
-        if (Gdx.input.isKeyPressed(Input.Keys.DOWN) || Gdx.input.isKeyPressed(Input.Keys.S)) {
-            newY = characterY - movement;
-            currentDirection = Direction.DOWN;
-            isMoving = true;
-        }
-        if (Gdx.input.isKeyPressed(Input.Keys.UP) || Gdx.input.isKeyPressed(Input.Keys.W)) {
-            newY = characterY + movement;
-            currentDirection = Direction.UP;
-            isMoving = true;
-            isFacingUp = true;}
-        else {
-            isFacingUp = false;
-        }
-
-        boolean wouldBeAtExit = mapLoader.isExit(newX, characterY) || mapLoader.isExit(characterX, newY);
-        boolean canPassExit = mapLoader.isStatueCollected();
-
-        playerPosition.set(newX, newY);
-
-        if (!mapLoader.isWall(newX, characterY) && (!wouldBeAtExit || canPassExit)) {
-            characterX = newX;
-        }
-        if (!mapLoader.isWall(characterX, newY) && (!wouldBeAtExit || canPassExit)) {
-            characterY = newY;
-        }
-
-        // Check if character has stepped on a trap
-        if (mapLoader.isTrap(characterX, characterY)) {
-            takeDamage();
-        }
-
-        if (mapLoader.isHeart(characterX, characterY) && currentLives < MAX_LIVES) {
-            heal();
-            mapLoader.collectHeart(characterX, characterY);
-        }
-
-        // Check if character has collected the statue
-        if (mapLoader.isStatue(characterX, characterY)) {
-            mapLoader.collectStatue(characterX, characterY);
-            game.playStatueSound(); // Play statue collection sound
-        }
-
-        // Check if character has reached the exit
-        if (mapLoader.isExit(characterX, characterY) && mapLoader.isStatueCollected()) {
-            game.playVictorySound(); // Play victory sound
-            game.pushScreen(new VictoryScreen(game, elapsedTime)); // Pass elapsedTime to VictoryScreen constructor
-        }
-
-        List<Enemy> enemies = mapLoader.getEnemies();
-
-        for (Enemy enemy : enemies){
-            if (enemy.isTouchingPlayer(playerPosition)) {
-               takeDamage();
-            }
-        }
-        List<Shadow> shadows = mapLoader.getShadows();
-
-        boolean shadowIsWatching = false;
-
-
-        for (Shadow shadow : shadows){
-            if(isFacingUp && shadow.isStaring) {
-                slowDown();
-                shadowIsWatching = true;
-                break;
-            }
-        }
-
-        if(!shadowIsWatching){
-            resetSpeed();
-        }
-
-        // Check if character has stepped on a buff tile
-        if (mapLoader.isBuff(characterX, characterY)) {
-            activateBuff();
-            mapLoader.collectBuff(characterX, characterY);
+        if (replay != null) {
+            restart();
         }
+        bot = new PathBot();
+        bot.start(world);
     }
 
     /**
-     * Resets the player's movement speed to default value.
+     * Writes a recording to the local replays folder.
      */
-    public void resetSpeed(){
-        movementSpeed = 200f;
-        isSlowedDown = false;
+    private void saveRecording(InputRecording recording) {
+        FileHandle file = Gdx.files.local(REPLAY_FOLDER + "level-" + currentLevel + "-" + TimeUtils.millis() + InputRecording.EXTENSION);
+        try (OutputStream out = file.write(false)) {
+            recording.write(out);
+            Gdx.app.log("GameScreen", "Saved " + recording.getStepCount() + " steps to " + file.path());
+        } catch (IOException | GdxRuntimeException e) {
+            Gdx.app.error("GameScreen", "Error saving recording: " + file.path(), e);
+        }
     }
 
     /**
-     * Reduces player's movement speed (used for shadow effect).
+     * Restarts the current level on this screen without loading it again.
+     * The map is rolled back to its starting state and the player, lives, effects and timer are reset.
+     * A replay in progress stops, and a recording in progress starts over.
      */
-    public void slowDown(){
-        movementSpeed = 100f;
-        isSlowedDown = true;
+    public void restart() {
+        replay = null;
+        if (recording != null) {
+            recording.clear();
+        }
+        world.setDeterministic(recording != null);
+        world.reset();
+        if (bot != null) {
+            bot.start(world);
+        }
+        input.clear();
+        accumulator = 0;
+        stateTime = 0;
     }
 
-
     public int getCurrentLevel() {
         return currentLevel;
     }
@@ -585,7 +540,7 @@ public int getCurrentLevel() {
     private TextureRegion getAnimationFrame() {
         Animation<TextureRegion> currentAnimation;
 
-        switch (currentDirection) {
+        switch (world.getDirection()) {
             case UP:
                 currentAnimation = game.getCharacterUpAnimation();
                 break;
@@ -602,7 +557,7 @@ private TextureRegion getAnimationFrame() {
                 currentAnimation = game.getCharacterDownAnimation();
         }
 
-        return currentAnimation.getKeyFrame(isMoving ? stateTime : 0, true);
+        return currentAnimation.getKeyFrame(world.isMoving() ? stateTime : 0, true);
     }
 
     /**
@@ -655,12 +610,15 @@ public boolean scrolled(float amountX, float amountY) {
     }
 
     @Override
-    public void hide() {}
+    public void hide() {
+        // Stop profiling GL calls made by other screens
+        showRenderStats = false;
+        game.getProfiler().disable();
+    }
 
     //dispose of resources when the screen is destroyes
     @Override
     public void dispose() {
         mapLoader.dispose();
-        directionIndicator.dispose();
     }
 }
\ No newline at end of file
@@ -0,0 +1,1185 @@
+package de.tum.cit.fop.maze;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * The GameWorld class holds the rules and the state of one level: the tiles, the player with its
+ * lives and effects, the enemies and the shadows. It advances in fixed steps with
+ * {@link #step(PlayerInput, float)}.
+ * <p>
+ * The world never draws, plays sounds or reads the keyboard. Screens, sounds and the MapLoader
+ * observe it through a Listener and read its state between steps. It does not use Gdx.app,
+ * Gdx.graphics, Gdx.input or any GL resource, so it runs without a libGDX backend, e.g. on a server
+ * or in a benchmark, as fast as the steps can be computed.
+ * <p>
+ * All randomness comes from the seed the world is created with. In deterministic mode the AI time
+ * budget is lifted as well, so the same level, seed and inputs always give the same game; this is
+ * what InputRecording and Replay rely on. Snapshots save the whole changing state for seeking.
+ */
+public class GameWorld {
+    static final int TILE_SIZE = 64; // World size of a tile in pixels
+    static final int MAX_LIVES = 3;
+
+    // Effect durations in seconds
+    static final float DAMAGE_DURATION = 1.0f;
+    static final float HEAL_DURATION = 1.0f;
+    static final float SLOW_DURATION = 1.0f;
+    static final float BUFF_DURATION = 3.0f;
+    private static final float TRAP_DAMAGE_COOLDOWN_DURATION = 1.5f; // Seconds between trap damage
+
+    // Player movement
+    private static final float WALK_SPEED = 200f; // Pixels per second
+    private static final float SLOWED_SPEED = 100f; // While a shadow stares at the player
+    private static final float SPRINT_MULTIPLIER = 1.28f; // Speed multiplier when sprinting
+    private static final float HITBOX_SIZE = 40; // Collision box around the player's centre
+
+    // Distance tiers for enemy and shadow updates
+    private static final float AI_NEAR_DISTANCE = 10 * TILE_SIZE; // Updated every step; covers the view and both detection ranges
+    private static final float AI_MID_DISTANCE = 30 * TILE_SIZE; // Updated at AI_MID_RATE, dormant beyond
+    private static final float AI_MID_RATE = 4f; // Updates per second
+    private static final float AI_BUDGET_MILLIS = 2f; // Time per step before mid-range updates are deferred
+    private static final float BUCKET_SIZE = 4 * TILE_SIZE; // Spatial hash bucket size in pixels
+
+    /**
+     * The direction the player faces.
+     */
+    public enum Direction {
+        UP, DOWN, LEFT, RIGHT
+    }
+
+    /**
+     * Observes what happens in the world. All methods do nothing by default.
+     */
+    public interface Listener {
+        /**
+         * Called when the player loses a life and has lives left.
+         *
+         * @param livesLeft The remaining lives
+         */
+        default void playerDamaged(int livesLeft) {
+        }
+
+        /**
+         * Called when the player loses the last life.
+         */
+        default void playerDied() {
+        }
+
+        /**
+         * Called when the player picks up the statue.
+         */
+        default void statueCollected() {
+        }
+
+        /**
+         * Called when the player reaches an exit with the statue.
+         *
+         * @param elapsedTime The time the level took in seconds
+         */
+        default void levelCompleted(float elapsedTime) {
+        }
+
+        /**
+         * Called when a tile changed, e.g. a collected item or a tile restored by a reset.
+         *
+         * @param tileX The tile column
+         * @param tileY The tile row
+         */
+        default void tileChanged(int tileX, int tileY) {
+        }
+    }
+
+    private final LevelData level; // The parsed level, shared with the level cache and never modified
+    private final long seed; // Seeds the enemy types on every spawn
+    private final int mapWidth;
+    private final int mapHeight;
+    private final TileGrid grid;
+    private final Vector2 startPosition;
+    private final List<Vector2> exitPositions = new ArrayList<>();
+    private final FlowField flowField; // Shortest enemy paths to the player's tile
+    private Pathfinder pathfinder; // Created on first use
+    private final IntArray statueTiles = new IntArray(); // Row-major indices of the statues, ends of the hint path
+    private final IntArray hintCandidate = new IntArray(); // Reused way to one side of a statue
+    private final LineOfSight lineOfSight; // Whether walls hide the player from enemies and shadows
+    private final TileCollider collider; // Keeps the player and enemies out of walls
+    private final DistanceMap exitDistances; // Player steps to the nearest exit from every tile
+    private final TileTriggers triggers = new TileTriggers(TILE_SIZE); // Tile enter and exit events
+    private final IntArray revertedTiles = new IntArray(); // Tiles restored by reset
+    private final Array<Listener> listeners = new Array<>(false, 2);
+
+    private final EnemySystem enemies;
+    private final List<Shadow> shadows;
+    private final SpatialHash shadowHash; // Shadows by position, ids are indices into shadows
+    private final IntArray nearby = new IntArray(); // Reused result of spatial hash queries
+    private final AIScheduler enemyScheduler;
+    private final AIScheduler shadowScheduler;
+    private boolean statueCollected = false;
+
+    // Player position and movement
+    private float characterX = 400; // Used when the level has no start
+    private float characterY = 300;
+    private final Vector2 playerPosition = new Vector2();
+    private float previousX; // Player position before the last step
+    private float previousY;
+    private float movementSpeed = WALK_SPEED;
+    private Direction currentDirection = Direction.DOWN;
+    private boolean isMoving = false;
+    private boolean isFacingUp = false;
+    private final TileCollider.Result contact = new TileCollider.Result(); // Reused result of collision sweeps
+
+    // Lives and effects
+    private int currentLives = MAX_LIVES;
+    private boolean isDamaged = false;
+    private float damageTimer = 0;
+    private boolean isHealed = false;
+    private float healTimer = 0;
+    private boolean isSlowedDown = false;
+    private float slowTimer = 0;
+    private boolean hasBuffActive = false;
+    private float buffTimer = 0;
+    private boolean isInvulnerable = false;
+    private float trapDamageCooldown = 0f;
+    private boolean isOnTrap = false; // Set by the trap tile handler
+    private boolean isOnHeart = false; // Set by the heart tile handler
+    private boolean completed = false;
+    private float elapsedTime = 0;
+
+    private final AIScheduler.Agents enemyAgents = new AIScheduler.Agents() {
+        @Override
+        public float getX(int id) {
+            return enemies.getX(id) + EnemySystem.SIZE / 2;
+        }
+
+        @Override
+        public float getY(int id) {
+            return enemies.getY(id) + EnemySystem.SIZE / 2;
+        }
+
+        @Override
+        public void update(IntArray ids, float[] deltaTimes) {
+            enemies.update(ids, deltaTimes, playerPosition, GameWorld.this);
+        }
+    };
+
+    private final AIScheduler.Agents shadowAgents = new AIScheduler.Agents() {
+        @Override
+        public float getX(int id) {
+            return shadows.get(id).getPosition().x;
+        }
+
+        @Override
+        public float getY(int id) {
+            return shadows.get(id).getPosition().y;
+        }
+
+        @Override
+        public void update(IntArray ids, float[] deltaTimes) {
+            for (int i = 0; i < ids.size; i++) {
+                int id = ids.get(i);
+                shadows.get(id).update(deltaTimes[id], playerPosition, lineOfSight);
+            }
+        }
+    };
+
+    /**
+     * Creates the world of a parsed level with the player at the start and the enemies and shadows
+     * at their spawn points.
+     *
+     * @param level The level to play; it is not modified
+     * @param seed  The seed of all random choices, e.g. the enemy types
+     */
+    public GameWorld(LevelData level, long seed) {
+        this.level = level;
+        this.seed = seed;
+        mapWidth = level.getWidth();
+        mapHeight = level.getHeight();
+        grid = new TileGrid(mapWidth, mapHeight, level.getTiles());
+        flowField = new FlowField(grid);
+        lineOfSight = new LineOfSight(grid, TileGrid.SOLID);
+        collider = new TileCollider(grid, TILE_SIZE);
+        exitDistances = new DistanceMap(grid, TileGrid.SOLID, level.getExits());
+        triggers.setGrid(grid);
+
+        // Store special positions
+        startPosition = level.getStart() >= 0 ? tileToWorld(level.getStart()) : null;
+        for (int exit : level.getExits()) {
+            exitPositions.add(tileToWorld(exit));
+        }
+        byte[] tiles = level.getTiles();
+        for (int i = 0; i < tiles.length; i++) {
+            if (tiles[i] == Tile.STATUE) statueTiles.add(i);
+        }
+
+        // The spawn counts are known, so the list never grows
+        enemies = new EnemySystem(triggers, mapWidth * TILE_SIZE, mapHeight * TILE_SIZE, level.getEnemySpawns().length);
+        shadows = new ArrayList<>(level.getShadowSpawns().length);
+        shadowHash = new SpatialHash(BUCKET_SIZE, mapWidth * TILE_SIZE, mapHeight * TILE_SIZE, level.getShadowSpawns().length);
+        enemyScheduler = new AIScheduler(enemyAgents, enemies.getHash(),
+                AI_NEAR_DISTANCE, AI_MID_DISTANCE, AI_MID_RATE, AI_BUDGET_MILLIS);
+        shadowScheduler = new AIScheduler(shadowAgents, shadowHash,
+                AI_NEAR_DISTANCE, AI_MID_DISTANCE, AI_MID_RATE, AI_BUDGET_MILLIS);
+
+        registerTileHandlers();
+        spawnEntities();
+        placePlayer();
+    }
+
+    /**
+     * Adds an observer. Listeners are called in the order they were added.
+     *
+     * @param listener The listener to add
+     */
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Removes an observer added with {@link #addListener(Listener)}.
+     *
+     * @param listener The listener to remove
+     */
+    public void removeListener(Listener listener) {
+        listeners.removeValue(listener, true);
+    }
+
+    /**
+     * Turns deterministic mode on or off. In deterministic mode every due enemy and shadow is updated
+     * in every step, however long that takes, so the game no longer depends on the speed of the machine.
+     *
+     * @param deterministic true for recordings and replays, false to keep steps within the AI time budget
+     */
+    public void setDeterministic(boolean deterministic) {
+        float budget = deterministic ? Float.POSITIVE_INFINITY : AI_BUDGET_MILLIS;
+        enemyScheduler.setBudget(budget);
+        shadowScheduler.setBudget(budget);
+    }
+
+    /**
+     * Advances the world by one fixed step: effect timers, player movement and interactions,
+     * enemies and shadows. Does nothing once the level is over.
+     *
+     * @param input The player's controls during the step
+     * @param delta The length of the step in seconds
+     */
+    public void step(PlayerInput input, float delta) {
+        if (isOver()) return;
+
+        previousX = characterX;
+        previousY = characterY;
+
+        //Update the elapsed time
+        elapsedTime += delta;
+
+        // Debug keys
+        if (input.damage) {
+            takeDamage();
+        }
+        if (input.heal) {
+            heal();
+        }
+
+        // Update damage, heal, and buff timers...
+        if (isDamaged) {
+            damageTimer += delta;
+            if (damageTimer >= DAMAGE_DURATION) {
+                isDamaged = false;
+                damageTimer = 0;
+            }
+        }
+
+        if (isSlowedDown) {
+            slowTimer += delta;
+            if (slowTimer >= SLOW_DURATION) {
+                isSlowedDown = false;
+                slowTimer = 0;
+            }
+        }
+
+        // Update heal timer if character is healed
+        if (isHealed) {
+            healTimer += delta;
+            if (healTimer >= HEAL_DURATION) {
+                isHealed = false;
+                healTimer = 0;
+            }
+        }
+
+        if (hasBuffActive) {
+            buffTimer += delta;
+            if (buffTimer >= BUFF_DURATION) {
+                hasBuffActive = false;
+                buffTimer = 0;
+                isInvulnerable = false;
+            }
+        }
+
+        // Move the player and update the animation state
+        movePlayer(input, delta);
+
+        // Move enemies and update shadows, more often the closer they are
+        updateEntities(delta);
+
+        // Update trap damage cooldown
+        if (isInvulnerable && !hasBuffActive) {
+            trapDamageCooldown -= delta;
+            if (trapDamageCooldown <= 0) {
+                isInvulnerable = false;
+            }
+        }
+    }
+
+    /**
+     * Moves the player according to the input and handles what it runs into.
+     */
+    private void movePlayer(PlayerInput input, float delta) {
+        float currentSpeed = movementSpeed * (input.sprint ? SPRINT_MULTIPLIER : 1.0f);
+
+        float movement = currentSpeed * delta;
+        float newX = characterX;
+        float newY = characterY;
+
+        isMoving = false;
+
+        if (input.left) {
+            newX = characterX - movement;
+            currentDirection = Direction.LEFT;
+            isMoving = true;
+        }
+        if (input.right) {
+            newX = characterX + movement;
+            currentDirection = Direction.RIGHT;
+            isMoving = true;
+        }
+        if (input.down) {
+            newY = characterY - movement;
+            currentDirection = Direction.DOWN;
+            isMoving = true;
+        }
+        if (input.up) {
+            newY = characterY + movement;
+            currentDirection = Direction.UP;
+            isMoving = true;
+            isFacingUp = true;
+        } else {
+            isFacingUp = false;
+        }
+
+        // Sweep the hitbox through the tiles; the exit only opens once the statue is collected
+        int blockingFlags = TileGrid.SOLID | (statueCollected ? 0 : TileGrid.EXIT);
+        collider.move(characterX - HITBOX_SIZE / 2, characterY - HITBOX_SIZE / 2,
+                HITBOX_SIZE, HITBOX_SIZE, newX - characterX, newY - characterY, blockingFlags, contact);
+        characterX = contact.x + HITBOX_SIZE / 2;
+        characterY = contact.y + HITBOX_SIZE / 2;
+        playerPosition.set(characterX, characterY);
+
+        // Tile effects run in the handlers from registerTileHandlers, only when the player changes tiles
+        triggers.track(TileTriggers.PLAYER, characterX, characterY);
+
+        // Traps keep hurting while the player stands on one
+        if (isOnTrap) {
+            takeDamage();
+        }
+
+        // Only the enemies and shadows near the player are checked
+        if (enemies.isTouching(playerPosition)) {
+            takeDamage();
+        }
+
+        // A heart is used as soon as the player on it is missing a life, also after stepping onto it at full lives
+        if (isOnHeart && currentLives < MAX_LIVES) {
+            heal();
+            collectHeart(characterX, characterY);
+            isOnHeart = false;
+        }
+
+        if (isFacingUp && isShadowStaring(playerPosition)) {
+            slowDown();
+        } else {
+            resetSpeed();
+        }
+    }
+
+    /**
+     * Advances the enemies and shadows by one step.
+     * Entities are updated at a rate depending on their distance to the player, see AIScheduler.
+     */
+    private void updateEntities(float deltaTime) {
+        // One search per player tile change serves every chasing enemy
+        flowField.update((int) (playerPosition.x / TILE_SIZE), (int) (playerPosition.y / TILE_SIZE));
+
+        enemyScheduler.update(deltaTime, playerPosition.x, playerPosition.y, enemies.size());
+        shadowScheduler.update(deltaTime, playerPosition.x, playerPosition.y, shadows.size());
+    }
+
+    /**
+     * Registers what happens when the player steps onto traps, pickups and exits.
+     * The handlers only run when the player enters or leaves a tile of their type.
+     */
+    private void registerTileHandlers() {
+        // Check if the player has stepped on a trap
+        triggers.on(Tile.TRAP, new TileTriggers.Handler() {
+            @Override
+            public void enter(int entity, int tileX, int tileY) {
+                if (entity == TileTriggers.PLAYER) isOnTrap = true;
+            }
+
+            @Override
+            public void exit(int entity, int tileX, int tileY) {
+                if (entity == TileTriggers.PLAYER) isOnTrap = false;
+            }
+        });
+
+        // Check if the player stands on a heart; it is used in movePlayer
+        triggers.on(Tile.HEART, new TileTriggers.Handler() {
+            @Override
+            public void enter(int entity, int tileX, int tileY) {
+                if (entity == TileTriggers.PLAYER) isOnHeart = true;
+            }
+
+            @Override
+            public void exit(int entity, int tileX, int tileY) {
+                if (entity == TileTriggers.PLAYER) isOnHeart = false;
+            }
+        });
+
+        // Check if the player has collected the statue
+        triggers.on(Tile.STATUE, (entity, tileX, tileY) -> {
+            if (entity == TileTriggers.PLAYER) {
+                collectStatue(characterX, characterY);
+            }
+        });
+
+        // Check if the player has reached the exit
+        triggers.on(Tile.EXIT, (entity, tileX, tileY) -> {
+            if (entity == TileTriggers.PLAYER && statueCollected) {
+                completed = true;
+                for (int i = 0; i < listeners.size; i++) {
+                    listeners.get(i).levelCompleted(elapsedTime);
+                }
+            }
+        });
+
+        // Check if the player has stepped on a buff tile
+        triggers.on(Tile.BUFF, (entity, tileX, tileY) -> {
+            if (entity == TileTriggers.PLAYER) {
+                activateBuff();
+                collectBuff(characterX, characterY);
+            }
+        });
+    }
+
+    /**
+     * Puts the level back into its starting state: collected items return, the statue is not
+     * collected, the enemies and shadows are back at their spawn points and the player, lives,
+     * effects and timer are reset. Only the tiles that changed are restored.
+     */
+    public void reset() {
+        revertedTiles.clear();
+        for (int i = 0; i < grid.getChangeCount(); i++) {
+            int index = grid.getChangedIndex(i);
+            revertedTiles.add(index);
+            if (pathfinder != null) {
+                pathfinder.tileChanged(index % mapWidth, index / mapWidth);
+            }
+        }
+        grid.reset();
+        for (int i = 0; i < revertedTiles.size; i++) {
+            int index = revertedTiles.get(i);
+            exitDistances.tileChanged(index % mapWidth, index / mapWidth);
+            notifyTileChanged(index % mapWidth, index / mapWidth);
+        }
+        flowField.invalidate();
+        lineOfSight.invalidate();
+        triggers.clear();
+        statueCollected = false;
+
+        shadows.clear();
+        spawnEntities();
+
+        currentDirection = Direction.DOWN;
+        isMoving = false;
+        isFacingUp = false;
+        currentLives = MAX_LIVES;
+        isDamaged = false;
+        damageTimer = 0;
+        isHealed = false;
+        healTimer = 0;
+        hasBuffActive = false;
+        buffTimer = 0;
+        isInvulnerable = false;
+        isOnTrap = false;
+        isOnHeart = false;
+        trapDamageCooldown = 0;
+        resetSpeed();
+        slowTimer = 0;
+        completed = false;
+        elapsedTime = 0;
+        placePlayer();
+    }
+
+    /**
+     * Everything in a world that changes while it is played, saved by {@link #snapshot()}.
+     * The level, the seed and the listeners are not part of a snapshot.
+     */
+    public static final class Snapshot {
+        // Tiles changed since the start of the level and their types at the time of the snapshot
+        private final int[] changedTiles;
+        private final byte[] changedTypes;
+        private final boolean statueCollected;
+        private final boolean completed;
+
+        private final float characterX;
+        private final float characterY;
+        private final float previousX;
+        private final float previousY;
+        private final float movementSpeed;
+        private final Direction currentDirection;
+        private final boolean isMoving;
+        private final boolean isFacingUp;
+
+        private final int currentLives;
+        private final boolean isDamaged;
+        private final float damageTimer;
+        private final boolean isHealed;
+        private final float healTimer;
+        private final boolean isSlowedDown;
+        private final float slowTimer;
+        private final boolean hasBuffActive;
+        private final float buffTimer;
+        private final boolean isInvulnerable;
+        private final float trapDamageCooldown;
+        private final boolean isOnTrap;
+        private final boolean isOnHeart;
+        private final float elapsedTime;
+
+        private final EnemySystem.State enemies;
+        private final float[] shadowStateTimes;
+        private final boolean[] shadowsStaring;
+        private final AIScheduler.State enemyScheduler;
+        private final AIScheduler.State shadowScheduler;
+        private final TileTriggers.State triggers;
+
+        private Snapshot(GameWorld world) {
+            TileGrid grid = world.grid;
+            changedTiles = new int[grid.getChangeCount()];
+            changedTypes = new byte[changedTiles.length];
+            for (int i = 0; i < changedTiles.length; i++) {
+                changedTiles[i] = grid.getChangedIndex(i);
+                changedTypes[i] = grid.get(changedTiles[i] % world.mapWidth, changedTiles[i] / world.mapWidth);
+            }
+            statueCollected = world.statueCollected;
+            completed = world.completed;
+
+            characterX = world.characterX;
+            characterY = world.characterY;
+            previousX = world.previousX;
+            previousY = world.previousY;
+            movementSpeed = world.movementSpeed;
+            currentDirection = world.currentDirection;
+            isMoving = world.isMoving;
+            isFacingUp = world.isFacingUp;
+
+            currentLives = world.currentLives;
+            isDamaged = world.isDamaged;
+            damageTimer = world.damageTimer;
+            isHealed = world.isHealed;
+            healTimer = world.healTimer;
+            isSlowedDown = world.isSlowedDown;
+            slowTimer = world.slowTimer;
+            hasBuffActive = world.hasBuffActive;
+            buffTimer = world.buffTimer;
+            isInvulnerable = world.isInvulnerable;
+            trapDamageCooldown = world.trapDamageCooldown;
+            isOnTrap = world.isOnTrap;
+            isOnHeart = world.isOnHeart;
+            elapsedTime = world.elapsedTime;
+
+            enemies = world.enemies.saveState();
+            shadowStateTimes = new float[world.shadows.size()];
+            shadowsStaring = new boolean[world.shadows.size()];
+            for (int i = 0; i < shadowStateTimes.length; i++) {
+                shadowStateTimes[i] = world.shadows.get(i).getStateTime();
+                shadowsStaring[i] = world.shadows.get(i).isStaring;
+            }
+            enemyScheduler = world.enemyScheduler.saveState();
+            shadowScheduler = world.shadowScheduler.saveState();
+            triggers = world.triggers.saveState();
+        }
+
+        /**
+         * @return The time the level had been played for when the snapshot was taken, in seconds
+         */
+        public float getElapsedTime() {
+            return elapsedTime;
+        }
+    }
+
+    /**
+     * Saves the current state of the world.
+     *
+     * @return A snapshot that {@link #restore(Snapshot)} can return this world to
+     */
+    public Snapshot snapshot() {
+        return new Snapshot(this);
+    }
+
+    /**
+     * Returns the world to a saved state. Listeners are told about every tile that may have
+     * changed, but no other events are dispatched.
+     *
+     * @param snapshot A snapshot taken of this world
+     */
+    public void restore(Snapshot snapshot) {
+        // Roll the tiles back to the start of the level, then replay the snapshot's changes
+        revertedTiles.clear();
+        for (int i = 0; i < grid.getChangeCount(); i++) {
+            revertedTiles.add(grid.getChangedIndex(i));
+        }
+        grid.reset();
+        for (int i = 0; i < snapshot.changedTiles.length; i++) {
+            int index = snapshot.changedTiles[i];
+            grid.set(index % mapWidth, index / mapWidth, snapshot.changedTypes[i]);
+            revertedTiles.add(index);
+        }
+        for (int i = 0; i < revertedTiles.size; i++) {
+            int index = revertedTiles.get(i);
+            exitDistances.tileChanged(index % mapWidth, index / mapWidth);
+            if (pathfinder != null) {
+                pathfinder.tileChanged(index % mapWidth, index / mapWidth);
+            }
+            notifyTileChanged(index % mapWidth, index / mapWidth);
+        }
+        flowField.invalidate();
+        lineOfSight.invalidate();
+        statueCollected = snapshot.statueCollected;
+        completed = snapshot.completed;
+
+        characterX = snapshot.characterX;
+        characterY = snapshot.characterY;
+        playerPosition.set(characterX, characterY);
+        previousX = snapshot.previousX;
+        previousY = snapshot.previousY;
+        movementSpeed = snapshot.movementSpeed;
+        currentDirection = snapshot.currentDirection;
+        isMoving = snapshot.isMoving;
+        isFacingUp = snapshot.isFacingUp;
+
+        currentLives = snapshot.currentLives;
+        isDamaged = snapshot.isDamaged;
+        damageTimer = snapshot.damageTimer;
+        isHealed = snapshot.isHealed;
+        healTimer = snapshot.healTimer;
+        isSlowedDown = snapshot.isSlowedDown;
+        slowTimer = snapshot.slowTimer;
+        hasBuffActive = snapshot.hasBuffActive;
+        buffTimer = snapshot.buffTimer;
+        isInvulnerable = snapshot.isInvulnerable;
+        trapDamageCooldown = snapshot.trapDamageCooldown;
+        isOnTrap = snapshot.isOnTrap;
+        isOnHeart = snapshot.isOnHeart;
+        elapsedTime = snapshot.elapsedTime;
+
+        enemies.restoreState(snapshot.enemies);
+        for (int i = 0; i < shadows.size(); i++) {
+            shadows.get(i).restore(snapshot.shadowStateTimes[i], snapshot.shadowsStaring[i]);
+        }
+        enemyScheduler.restoreState(snapshot.enemyScheduler);
+        shadowScheduler.restoreState(snapshot.shadowScheduler);
+        triggers.restoreState(snapshot.triggers);
+    }
+
+    /**
+     * Puts the player on the start position of the level.
+     */
+    private void placePlayer() {
+        if (startPosition != null) {
+            characterX = startPosition.x;
+            characterY = startPosition.y;
+        }
+        playerPosition.set(characterX, characterY);
+        previousX = characterX;
+        previousY = characterY;
+    }
+
+    /**
+     * Creates the enemies and shadows at the spawn points of the level.
+     */
+    private void spawnEntities() {
+        enemies.clear();
+        shadowHash.clear();
+
+        // Create enemies; the same seed picks the same types on every spawn
+        Random random = new Random(seed);
+        for (int spawn : level.getEnemySpawns()) {
+            Vector2 position = tileToWorld(spawn);
+            enemies.add(position.x, position.y, random.nextInt(EnemySystem.TYPE_COUNT)); // Randomly pick an enemy type
+        }
+
+        // Create shadows
+        for (int spawn : level.getShadowSpawns()) {
+            Vector2 position = tileToWorld(spawn);
+            shadowHash.insert(shadows.size(), position.x, position.y);
+            shadows.add(new Shadow(position.x, position.y));
+        }
+
+        enemyScheduler.reset(enemies.size());
+        shadowScheduler.reset(shadows.size());
+    }
+
+    /**
+     * Converts a row-major tile index into the world position of the tile's bottom-left corner.
+     *
+     * @param index The tile index (y * mapWidth + x)
+     * @return The world position in pixels
+     */
+    private Vector2 tileToWorld(int index) {
+        return new Vector2((index % mapWidth) * TILE_SIZE, (index / mapWidth) * TILE_SIZE);
+    }
+
+    /**
+     * Handles damage taken by the player.
+     * Reduces lives, applies the damage effect and invulnerability frames, and ends the level when
+     * the last life is lost.
+     */
+    public void takeDamage() {
+        if (!isInvulnerable && currentLives > 0) {
+            currentLives--;
+            isDamaged = true;
+            damageTimer = 0;
+
+            // Only set invulnerability if we're not already buffed
+            if (!hasBuffActive) {
+                isInvulnerable = true;
+                trapDamageCooldown = TRAP_DAMAGE_COOLDOWN_DURATION;
+            }
+
+            for (int i = 0; i < listeners.size; i++) {
+                if (currentLives == 0) {
+                    listeners.get(i).playerDied();
+                } else {
+                    listeners.get(i).playerDamaged(currentLives);
+                }
+            }
+        }
+    }
+
+    /**
+     * Handles healing of the player.
+     * Increases lives if below maximum and applies the healing effect.
+     */
+    public void heal() {
+        if (currentLives < MAX_LIVES) {
+            currentLives++;
+            isHealed = true;
+            healTimer = 0;
+        }
+    }
+
+    /**
+     * Activates a buff effect on the player, giving temporary invulnerability.
+     */
+    private void activateBuff() {
+        hasBuffActive = true;
+        buffTimer = 0;
+        isInvulnerable = true;
+        trapDamageCooldown = 0; // Reset any existing damage cooldown
+    }
+
+    /**
+     * Resets the player's movement speed to default value.
+     */
+    public void resetSpeed() {
+        movementSpeed = WALK_SPEED;
+        isSlowedDown = false;
+    }
+
+    /**
+     * Reduces player's movement speed (used for shadow effect).
+     */
+    public void slowDown() {
+        movementSpeed = SLOWED_SPEED;
+        isSlowedDown = true;
+    }
+
+    /**
+     * Checks if any enemy touches the player. Only the enemies in the buckets around the player are checked.
+     *
+     * @param playerPosition The current position of the player
+     * @return true if at least one enemy touches the player
+     */
+    public boolean isEnemyTouching(Vector2 playerPosition) {
+        return enemies.isTouching(playerPosition);
+    }
+
+    /**
+     * Checks if any shadow close enough to see the player is staring at it.
+     * Only the shadows in the buckets around the player are checked.
+     *
+     * @param playerPosition The current position of the player
+     * @return true if at least one shadow is staring
+     */
+    public boolean isShadowStaring(Vector2 playerPosition) {
+        float reach = Shadow.RANGE;
+        nearby.clear();
+        shadowHash.query(playerPosition.x - reach, playerPosition.y - reach,
+                playerPosition.x + reach, playerPosition.y + reach, nearby);
+        for (int i = 0; i < nearby.size; i++) {
+            if (shadows.get(nearby.get(i)).isStaring) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns every flag of the tile at a world position in a single lookup.
+     * Combine the result with the TileGrid flag constants, e.g. {@code (classify(x, y) & TileGrid.SOLID) != 0}.
+     *
+     * @param x The x-coordinate in pixels
+     * @param y The y-coordinate in pixels
+     * @return The tile's flags, or TileGrid.OUT_OF_BOUNDS outside the map
+     */
+    public int classify(float x, float y) {
+        return grid.classify((int) (x / TILE_SIZE), (int) (y / TILE_SIZE));
+    }
+
+    /**
+     * Checks if a given position contains an exit tile.
+     *
+     * @param x The x-coordinate to check
+     * @param y The y-coordinate to check
+     * @return true if the position contains an exit tile, false otherwise
+     */
+    public boolean isExit(float x, float y) {
+        return (classify(x, y) & TileGrid.EXIT) != 0;
+    }
+
+    /**
+     * Checks if a given position contains a trap tile.
+     *
+     * @param x The x-coordinate to check
+     * @param y The y-coordinate to check
+     * @return true if the position contains a trap tile, false otherwise
+     */
+    public boolean isTrap(float x, float y) {
+        return (classify(x, y) & TileGrid.DAMAGING) != 0;
+    }
+
+    /**
+     * Checks if a given position contains a statue/key tile.
+     *
+     * @param x The x-coordinate to check
+     * @param y The y-coordinate to check
+     * @return true if the position contains a statue tile, false otherwise
+     */
+    public boolean isStatue(float x, float y) {
+        return (classify(x, y) & TileGrid.KEY) != 0;
+    }
+
+    /**
+     * Checks if a given position contains a wall tile.
+     *
+     * @param x The x-coordinate to check
+     * @param y The y-coordinate to check
+     * @return true if the position contains a wall or is out of bounds, false otherwise
+     */
+    public boolean isWall(float x, float y) {
+        return (classify(x, y) & TileGrid.SOLID) != 0;
+    }
+
+    /**
+     * Checks if a given position contains a heart powerup.
+     *
+     * @param x The x-coordinate to check in pixels
+     * @param y The y-coordinate to check in pixels
+     * @return true if the position contains a heart, false otherwise
+     */
+    public boolean isHeart(float x, float y) {
+        return (classify(x, y) & TileGrid.HEALS) != 0;
+    }
+
+    /**
+     * Checks if a given position contains a buff powerup.
+     *
+     * @param x The x-coordinate to check in pixels
+     * @param y The y-coordinate to check in pixels
+     * @return true if the position contains a buff, false otherwise
+     */
+    public boolean isBuff(float x, float y) {
+        return (classify(x, y) & TileGrid.SHIELDS) != 0;
+    }
+
+    /**
+     * Removes a buff powerup from the map at the specified position.
+     * Only removes the buff if one exists at the given coordinates.
+     *
+     * @param x The x-coordinate of the buff to collect in pixels
+     * @param y The y-coordinate of the buff to collect in pixels
+     */
+    public void collectBuff(float x, float y) {
+        if (isBuff(x, y)) {
+            removeTile(x, y);
+        }
+    }
+
+    /**
+     * Removes a collected heart from the map at the specified position.
+     *
+     * @param x The x-coordinate of the heart to collect
+     * @param y The y-coordinate of the heart to collect
+     */
+    public void collectHeart(float x, float y) {
+        if (isHeart(x, y)) {
+            removeTile(x, y);
+        }
+    }
+
+    /**
+     * Removes a collected statue/key from the map and marks it as collected.
+     *
+     * @param x The x-coordinate of the statue to collect
+     * @param y The y-coordinate of the statue to collect
+     */
+    public void collectStatue(float x, float y) {
+        if (isStatue(x, y)) {
+            statueCollected = true;
+            removeTile(x, y);
+            for (int i = 0; i < listeners.size; i++) {
+                listeners.get(i).statueCollected();
+            }
+        }
+    }
+
+    /**
+     * Clears the tile at a world position back to floor and updates everything derived from it.
+     *
+     * @param x The x-coordinate in pixels
+     * @param y The y-coordinate in pixels
+     */
+    private void removeTile(float x, float y) {
+        int mapX = (int) (x / TILE_SIZE);
+        int mapY = (int) (y / TILE_SIZE);
+        grid.set(mapX, mapY, Tile.EMPTY);
+        flowField.invalidate(); // A collected statue opens the tile for enemies
+        lineOfSight.invalidate();
+        exitDistances.tileChanged(mapX, mapY);
+        if (pathfinder != null) {
+            pathfinder.tileChanged(mapX, mapY);
+        }
+        notifyTileChanged(mapX, mapY);
+    }
+
+    private void notifyTileChanged(int tileX, int tileY) {
+        for (int i = 0; i < listeners.size; i++) {
+            listeners.get(i).tileChanged(tileX, tileY);
+        }
+    }
+
+    /**
+     * Checks if the level is over, either because the player lost all lives or reached an exit.
+     * A finished world ignores further steps until it is reset.
+     *
+     * @return true if the level is over
+     */
+    public boolean isOver() {
+        return currentLives == 0 || completed;
+    }
+
+    //Getters
+    public LevelData getLevel() {
+        return level;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public TileGrid getGrid() {
+        return grid;
+    }
+
+    public Vector2 getStartPosition() {
+        return startPosition;
+    }
+
+    public List<Vector2> getExitPositions() {
+        return exitPositions;
+    }
+
+    public FlowField getFlowField() {
+        return flowField;
+    }
+
+    public LineOfSight getLineOfSight() {
+        return lineOfSight;
+    }
+
+    public DistanceMap getExitDistances() {
+        return exitDistances;
+    }
+
+    public TileCollider getCollider() {
+        return collider;
+    }
+
+    public TileTriggers getTriggers() {
+        return triggers;
+    }
+
+    /**
+     * Finds the hint path from the player's tile to the statue that the screen shows until the statue
+     * is collected. It comes from the pathfinder, so it keeps off traps as well as walls. The statue
+     * also blocks enemies, so the path is searched to each open side of every statue, the shortest
+     * one is kept, and the statue is added at its end.
+     *
+     * @param path Receives the tile indices (y * width + x) from the player's tile to the statue;
+     *             it is cleared first and left empty if the statue is collected, the player stands
+     *             on a tile enemies cannot enter, or no statue can be reached
+     * @return true if a path was found
+     */
+    public boolean findStatueHint(IntArray path) {
+        path.clear();
+        if (statueCollected) return false;
+
+        int playerTileX = (int) (playerPosition.x / TILE_SIZE);
+        int playerTileY = (int) (playerPosition.y / TILE_SIZE);
+        Pathfinder finder = getPathfinder();
+        for (int i = 0; i < statueTiles.size; i++) {
+            int statue = statueTiles.get(i);
+            int statueX = statue % mapWidth;
+            int statueY = statue / mapWidth;
+            for (int side = 0; side < 4; side++) {
+                int sideX = statueX + (side == 0 ? 1 : side == 1 ? -1 : 0);
+                int sideY = statueY + (side == 2 ? 1 : side == 3 ? -1 : 0);
+                if (!grid.isInside(sideX, sideY)) continue;
+                if (finder.findPath(playerTileX, playerTileY, sideX, sideY, hintCandidate)
+                        && (path.isEmpty() || hintCandidate.size + 1 < path.size)) {
+                    path.clear();
+                    path.addAll(hintCandidate);
+                    path.add(statue);
+                }
+            }
+        }
+        return path.notEmpty();
+    }
+
+    /**
+     * Returns the pathfinder for paths between any two tiles of the map that an enemy could walk,
+     * such as the statue hint.
+     * It is built on the first call and kept up to date as tiles change.
+     *
+     * @return The pathfinder, treating tiles that block enemies as impassable
+     */
+    public Pathfinder getPathfinder() {
+        if (pathfinder == null) {
+            pathfinder = new Pathfinder(grid, TileGrid.BLOCKS_ENEMY);
+        }
+        return pathfinder;
+    }
+
+    public EnemySystem getEnemies() {
+        return enemies;
+    }
+
+    public List<Shadow> getShadows() {
+        return shadows;
+    }
+
+    /**
+     * @return The spatial hash of the shadows by position, ids are indices into getShadows()
+     */
+    SpatialHash getShadowHash() {
+        return shadowHash;
+    }
+
+    /**
+     * @param tier AIScheduler.NEAR, MID or FAR
+     * @return The number of enemies and shadows updated in the tier in the last step; for FAR, the number left dormant
+     */
+    public int getAIProcessed(int tier) {
+        return enemyScheduler.getProcessed(tier) + shadowScheduler.getProcessed(tier);
+    }
+
+    /**
+     * @return The number of due mid-range enemies and shadows the last step deferred to stay within the budget
+     */
+    public int getAIDeferred() {
+        return enemyScheduler.getDeferred() + shadowScheduler.getDeferred();
+    }
+
+    public boolean isStatueCollected() {
+        return statueCollected;
+    }
+
+    /**
+     * @return The player's centre in pixels; the vector is updated in place every step
+     */
+    public Vector2 getPlayerPosition() {
+        return playerPosition;
+    }
+
+    public float getPreviousPlayerX() {
+        return previousX;
+    }
+
+    public float getPreviousPlayerY() {
+        return previousY;
+    }
+
+    public Direction getDirection() {
+        return currentDirection;
+    }
+
+    public boolean isMoving() {
+        return isMoving;
+    }
+
+    public boolean isFacingUp() {
+        return isFacingUp;
+    }
+
+    public int getLives() {
+        return currentLives;
+    }
+
+    public boolean isDamaged() {
+        return isDamaged;
+    }
+
+    public float getDamageTimer() {
+        return damageTimer;
+    }
+
+    public boolean isHealed() {
+        return isHealed;
+    }
+
+    public float getHealTimer() {
+        return healTimer;
+    }
+
+    public boolean isSlowedDown() {
+        return isSlowedDown;
+    }
+
+    public float getSlowTimer() {
+        return slowTimer;
+    }
+
+    public boolean hasBuffActive() {
+        return hasBuffActive;
+    }
+
+    public float getBuffTimer() {
+        return buffTimer;
+    }
+
+    public float getElapsedTime() {
+        return elapsedTime;
+    }
+}
@@ -0,0 +1,199 @@
+package de.tum.cit.fop.maze;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * The InputRecording class stores the player's input of every simulation step of a level attempt,
+ * together with the level and the world seed. A GameWorld created with the same level and seed and
+ * stepped with the recorded input plays out exactly the same way, see Replay.
+ * <p>
+ * The input of a step is a PlayerInput bitmask. Held keys repeat the same mask for many steps, so
+ * the steps are stored as runs of equal masks. Reading the input of any step is a binary search
+ * over the runs.
+ * <p>
+ * File layout (.rec), all integers big-endian:
+ * <pre>
+ *   int   magic ("CDRC")
+ *   int   version
+ *   int   level id
+ *   long  world seed
+ *   float step length in seconds
+ *   int   run count, then per run: int step count, byte input bits
+ * </pre>
+ */
+public class InputRecording {
+    public static final int MAGIC = 0x43445243; // "CDRC"
+    public static final int VERSION = 1;
+    public static final String EXTENSION = ".rec";
+
+    private final int levelId;
+    private final long seed;
+    private final float stepLength;
+
+    // Runs of equal input, oldest first
+    private int[] runEnds = new int[16]; // Step after the last step of each run
+    private byte[] runBits = new byte[16];
+    private int runCount;
+
+    /**
+     * Creates an empty recording.
+     *
+     * @param levelId    The id of the recorded level in the level manifest
+     * @param seed       The seed the GameWorld was created with
+     * @param stepLength The length of a simulation step in seconds
+     */
+    public InputRecording(int levelId, long seed, float stepLength) {
+        if (stepLength <= 0) {
+            throw new IllegalArgumentException("Step length must be positive: " + stepLength);
+        }
+        this.levelId = levelId;
+        this.seed = seed;
+        this.stepLength = stepLength;
+    }
+
+    /**
+     * Appends the input of the next step.
+     *
+     * @param input The input the step runs with
+     */
+    public void record(PlayerInput input) {
+        byte bits = (byte) input.getBits();
+        if (runCount > 0 && runBits[runCount - 1] == bits) {
+            runEnds[runCount - 1]++;
+            return;
+        }
+        if (runCount == runEnds.length) {
+            runEnds = Arrays.copyOf(runEnds, runCount * 2);
+            runBits = Arrays.copyOf(runBits, runCount * 2);
+        }
+        runEnds[runCount] = getStepCount() + 1;
+        runBits[runCount] = bits;
+        runCount++;
+    }
+
+    /**
+     * Forgets all recorded steps, e.g. when the level is restarted.
+     */
+    public void clear() {
+        runCount = 0;
+    }
+
+    /**
+     * Sets an input to the one recorded for a step.
+     *
+     * @param step  The step, from 0 to getStepCount() - 1
+     * @param input Receives the recorded input
+     */
+    public void read(int step, PlayerInput input) {
+        if (step < 0 || step >= getStepCount()) {
+            throw new IllegalArgumentException("No step " + step + " in a recording of " + getStepCount());
+        }
+        // First run ending after the step
+        int low = 0;
+        int high = runCount - 1;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (runEnds[middle] <= step) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        input.setBits(runBits[low]);
+    }
+
+    /**
+     * Writes the recording in the binary format.
+     *
+     * @param out The stream to write to; it is flushed but not closed
+     * @throws IOException if writing fails
+     */
+    public void write(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeInt(VERSION);
+        data.writeInt(levelId);
+        data.writeLong(seed);
+        data.writeFloat(stepLength);
+        data.writeInt(runCount);
+        int start = 0;
+        for (int i = 0; i < runCount; i++) {
+            data.writeInt(runEnds[i] - start);
+            data.writeByte(runBits[i]);
+            start = runEnds[i];
+        }
+        data.flush();
+    }
+
+    /**
+     * Reads a recording from a buffer holding the binary format.
+     *
+     * @param buffer The buffer positioned at the start of the recording
+     * @return The recording
+     * @throws IOException if the data is not a recording or is truncated
+     */
+    public static InputRecording read(ByteBuffer buffer) throws IOException {
+        try {
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Not an input recording");
+            }
+            int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported recording version: " + version);
+            }
+
+            int levelId = buffer.getInt();
+            long seed = buffer.getLong();
+            float stepLength = buffer.getFloat();
+            if (!(stepLength > 0)) {
+                throw new IOException("Invalid step length: " + stepLength);
+            }
+            InputRecording recording = new InputRecording(levelId, seed, stepLength);
+
+            int runCount = buffer.getInt();
+            if (runCount < 0 || runCount > buffer.remaining() / 5) {
+                throw new IOException("Invalid run count: " + runCount);
+            }
+            recording.runEnds = new int[Math.max(runCount, 16)];
+            recording.runBits = new byte[recording.runEnds.length];
+            int end = 0;
+            for (int i = 0; i < runCount; i++) {
+                int length = buffer.getInt();
+                if (length <= 0 || end + length < 0) {
+                    throw new IOException("Invalid run length: " + length);
+                }
+                end += length;
+                recording.runEnds[i] = end;
+                recording.runBits[i] = buffer.get();
+            }
+            recording.runCount = runCount;
+            return recording;
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Input recording is truncated", e);
+        }
+    }
+
+    public int getLevelId() {
+        return levelId;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public float getStepLength() {
+        return stepLength;
+    }
+
+    /**
+     * @return The number of recorded steps
+     */
+    public int getStepCount() {
+        return runCount == 0 ? 0 : runEnds[runCount - 1];
+    }
+}
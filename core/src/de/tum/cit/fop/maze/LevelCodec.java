@@ -0,0 +1,120 @@
+package de.tum.cit.fop.maze;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+
+/**
+ * The LevelCodec class reads and writes the compiled binary level format (.bin files in maps/).
+ * <p>
+ * Layout, all integers big-endian:
+ * <pre>
+ *   int    magic ("CDLV")
+ *   int    version
+ *   int    width, height
+ *   int    start tile index (-1 if none)
+ *   int    exit count,   then that many tile indices
+ *   int    enemy count,  then that many tile indices
+ *   int    shadow count, then that many tile indices
+ *   byte[] width * height tile types, row-major
+ * </pre>
+ * The tile array is read with a single bulk copy, so loading does not allocate anything per cell.
+ */
+public final class LevelCodec {
+    public static final int MAGIC = 0x43444C56; // "CDLV"
+    public static final int VERSION = 1;
+    public static final String EXTENSION = ".bin";
+
+    private LevelCodec() {
+    }
+
+    /**
+     * Writes a level in the binary format.
+     *
+     * @param level The level to write
+     * @param out   The stream to write to; it is flushed but not closed
+     * @throws IOException if writing fails
+     */
+    public static void write(LevelData level, OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeInt(VERSION);
+        data.writeInt(level.getWidth());
+        data.writeInt(level.getHeight());
+        data.writeInt(level.getStart());
+        writeIndices(data, level.getExits());
+        writeIndices(data, level.getEnemySpawns());
+        writeIndices(data, level.getShadowSpawns());
+        data.write(level.getTiles());
+        data.flush();
+    }
+
+    /**
+     * Reads a level from a buffer holding the binary format, e.g. a memory-mapped file.
+     *
+     * @param buffer The buffer positioned at the start of the level
+     * @return The level
+     * @throws IOException if the data is not a compiled level, is truncated or has tile indices
+     *                     outside the level
+     */
+    public static LevelData read(ByteBuffer buffer) throws IOException {
+        try {
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Not a compiled level file");
+            }
+            int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported level version: " + version);
+            }
+
+            int width = buffer.getInt();
+            int height = buffer.getInt();
+            if (width <= 0 || height <= 0 || (long) width * height > Integer.MAX_VALUE) {
+                throw new IOException("Invalid level size: " + width + "x" + height);
+            }
+            int tileCount = width * height;
+            int start = buffer.getInt();
+            if (start < -1 || start >= tileCount) { // -1 if the level has no entry
+                throw new IOException("Invalid start index: " + start);
+            }
+            int[] exits = readIndices(buffer, tileCount);
+            int[] enemySpawns = readIndices(buffer, tileCount);
+            int[] shadowSpawns = readIndices(buffer, tileCount);
+
+            byte[] tiles = new byte[width * height];
+            buffer.get(tiles);
+            return new LevelData(width, height, tiles, start, exits, enemySpawns, shadowSpawns, new ArrayList<>());
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Compiled level file is truncated", e);
+        }
+    }
+
+    private static void writeIndices(DataOutputStream data, int[] indices) throws IOException {
+        data.writeInt(indices.length);
+        for (int index : indices) {
+            data.writeInt(index);
+        }
+    }
+
+    /**
+     * Reads a counted list of tile indices and checks that each one lies inside the level.
+     */
+    private static int[] readIndices(ByteBuffer buffer, int tileCount) throws IOException {
+        int count = buffer.getInt();
+        if (count < 0 || count > buffer.remaining() / 4) {
+            throw new IOException("Invalid entry count: " + count);
+        }
+        int[] indices = new int[count];
+        buffer.asIntBuffer().get(indices);
+        buffer.position(buffer.position() + count * 4);
+        for (int index : indices) {
+            if (index < 0 || index >= tileCount) {
+                throw new IOException("Tile index " + index + " is outside the level of " + tileCount + " tiles");
+            }
+        }
+        return indices;
+    }
+}
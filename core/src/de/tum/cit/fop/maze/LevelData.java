@@ -0,0 +1,147 @@
+package de.tum.cit.fop.maze;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The LevelData class is the parsed, renderer-independent form of a level.
+ * It holds the object layer as a row-major tile array together with the positions the game needs
+ * without scanning the tiles: the start tile, the exits and the enemy and shadow spawn points.
+ * Positions are stored as tile indices (y * width + x).
+ * <p>
+ * LevelData does not use any libGDX classes, so the map compiler can build it outside the game.
+ * Text levels are parsed by LevelParser and compiled levels are read by LevelCodec.
+ */
+public class LevelData {
+    private final int width;
+    private final int height;
+    private final byte[] tiles;
+    private final int start; // -1 if the level has no entry tile
+    private final int[] exits;
+    private final int[] enemySpawns;
+    private final int[] shadowSpawns;
+    private final List<String> warnings;
+
+    /**
+     * Creates a level from already parsed data. The arrays are used as they are, not copied.
+     *
+     * @param width        The level width in tiles
+     * @param height       The level height in tiles
+     * @param tiles        The row-major tile types, width * height entries
+     * @param start        The tile index of the entry, or -1
+     * @param exits        The tile indices of all exits
+     * @param enemySpawns  The tile indices of all enemy spawn points
+     * @param shadowSpawns The tile indices of all shadow spawn points
+     * @param warnings     Problems found while parsing, for logging
+     */
+    public LevelData(int width, int height, byte[] tiles, int start, int[] exits,
+                     int[] enemySpawns, int[] shadowSpawns, List<String> warnings) {
+        if (tiles.length != width * height) {
+            throw new IllegalArgumentException("Expected " + width * height + " tiles but got " + tiles.length);
+        }
+        this.width = width;
+        this.height = height;
+        this.tiles = tiles;
+        this.start = start;
+        this.exits = exits;
+        this.enemySpawns = enemySpawns;
+        this.shadowSpawns = shadowSpawns;
+        this.warnings = Collections.unmodifiableList(warnings);
+    }
+
+    /**
+     * Creates a tile array for a level of the given size with walls around the border.
+     * Entries from the level file are placed on top of it, so the border walls can be overridden.
+     *
+     * @param width  The level width in tiles
+     * @param height The level height in tiles
+     * @return The new row-major tile array
+     */
+    static byte[] emptyTiles(int width, int height) {
+        byte[] tiles = new byte[width * height];
+        Arrays.fill(tiles, Tile.EMPTY);
+        for (int x = 0; x < width; x++) {
+            tiles[x] = Tile.WALL; // Bottom wall
+            tiles[(height - 1) * width + x] = Tile.WALL; // Top wall
+        }
+        for (int y = 0; y < height; y++) {
+            tiles[y * width] = Tile.WALL; // Left wall
+            tiles[y * width + width - 1] = Tile.WALL; // Right wall
+        }
+        return tiles;
+    }
+
+    /**
+     * Builds a level from a filled tile array by collecting the start, exits and spawn points.
+     *
+     * @param width    The level width in tiles
+     * @param height   The level height in tiles
+     * @param tiles    The row-major tile types
+     * @param warnings Problems found while parsing
+     * @return The level
+     */
+    static LevelData fromTiles(int width, int height, byte[] tiles, List<String> warnings) {
+        int start = -1;
+        int exitCount = 0;
+        int enemyCount = 0;
+        int shadowCount = 0;
+        for (byte tile : tiles) {
+            if (tile == Tile.EXIT) exitCount++;
+            else if (tile == Tile.ENEMY) enemyCount++;
+            else if (tile == Tile.SHADOW) shadowCount++;
+        }
+
+        int[] exits = new int[exitCount];
+        int[] enemySpawns = new int[enemyCount];
+        int[] shadowSpawns = new int[shadowCount];
+        exitCount = enemyCount = shadowCount = 0;
+        for (int i = 0; i < tiles.length; i++) {
+            switch (tiles[i]) {
+                case Tile.ENTRY: start = i; break;
+                case Tile.EXIT: exits[exitCount++] = i; break;
+                case Tile.ENEMY: enemySpawns[enemyCount++] = i; break;
+                case Tile.SHADOW: shadowSpawns[shadowCount++] = i; break;
+                default: break;
+            }
+        }
+        return new LevelData(width, height, tiles, start, exits, enemySpawns, shadowSpawns, warnings);
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Returns the tile array itself. Callers must not modify it.
+     *
+     * @return The row-major tile types
+     */
+    public byte[] getTiles() {
+        return tiles;
+    }
+
+    public int getStart() {
+        return start;
+    }
+
+    public int[] getExits() {
+        return exits;
+    }
+
+    public int[] getEnemySpawns() {
+        return enemySpawns;
+    }
+
+    public int[] getShadowSpawns() {
+        return shadowSpawns;
+    }
+
+    public List<String> getWarnings() {
+        return warnings;
+    }
+}
@@ -0,0 +1,57 @@
+package de.tum.cit.fop.maze;
+
+/**
+ * The LevelInfo class describes one entry of the level manifest:
+ * the level id, its map file and the sizes needed to load it without guessing.
+ */
+public class LevelInfo {
+    private final int id;
+    private final String file; // Map path relative to maps/, without extension
+    private final int width;
+    private final int height;
+    private final int enemyCount;
+    private final int shadowCount;
+
+    /**
+     * Creates a manifest entry.
+     *
+     * @param id          The level number
+     * @param file        The map file name without extension, e.g. "level-1"
+     * @param width       The map width in tiles
+     * @param height      The map height in tiles
+     * @param enemyCount  The number of enemy spawn points
+     * @param shadowCount The number of shadow spawn points
+     */
+    public LevelInfo(int id, String file, int width, int height, int enemyCount, int shadowCount) {
+        this.id = id;
+        this.file = file;
+        this.width = width;
+        this.height = height;
+        this.enemyCount = enemyCount;
+        this.shadowCount = shadowCount;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getFile() {
+        return file;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getEnemyCount() {
+        return enemyCount;
+    }
+
+    public int getShadowCount() {
+        return shadowCount;
+    }
+}
@@ -0,0 +1,154 @@
+package de.tum.cit.fop.maze;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * The LevelLoader class reads level files into LevelData, either right away or in the background.
+ * <p>
+ * Reading and parsing a level does not touch OpenGL, so screens that are shown before a level starts
+ * (the main menu, the victory screen, the cutscene) call {@link #preload(LevelInfo)} to parse it on a
+ * worker thread while the player is looking at them. The GameScreen then calls {@link #load(LevelInfo)},
+ * which hands over the finished result and only waits if parsing is still running.
+ * <p>
+ * Parsed levels are immutable, so the most recently used ones are kept in memory. Restarting a level
+ * or selecting it again from the levels menu then does not touch the disk at all; every run works on
+ * its own copy-on-write TileGrid on top of the shared tiles.
+ * All methods must be called from the render thread.
+ */
+public class LevelLoader {
+    private static final int CACHE_SIZE = 3; // Parsed levels kept in memory
+
+    private final ExecutorService executor;
+    private final Map<Integer, Future<LevelData>> pending = new HashMap<>(); // By level id
+    private final Map<Integer, LevelData> cache = new LinkedHashMap<>(CACHE_SIZE, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, LevelData> eldest) {
+            return size() > CACHE_SIZE; // Evict the least recently used level
+        }
+    };
+
+    /**
+     * Creates a level loader with a single background thread.
+     */
+    public LevelLoader() {
+        executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "level-loader");
+            thread.setDaemon(true); // Never keeps the application alive
+            return thread;
+        });
+    }
+
+    /**
+     * Starts parsing a level in the background.
+     * Does nothing if the level is already cached or being preloaded.
+     *
+     * @param levelInfo The manifest entry of the level, or null for no level
+     */
+    public void preload(LevelInfo levelInfo) {
+        if (levelInfo == null || cache.containsKey(levelInfo.getId()) || pending.containsKey(levelInfo.getId())) return;
+        pending.put(levelInfo.getId(), executor.submit(() -> readLevel(levelInfo)));
+    }
+
+    /**
+     * Returns a level from the cache, from a preload, or by reading it now, in that order.
+     * If the level cannot be read, the error is logged and an empty 15x15 level is returned.
+     *
+     * @param levelInfo The manifest entry of the level, or null to get an empty level
+     * @return The parsed level
+     */
+    public LevelData load(LevelInfo levelInfo) {
+        if (levelInfo == null) {
+            Gdx.app.error("LevelLoader", "Level is not in the level manifest");
+            return emptyLevel();
+        }
+
+        LevelData level = cache.get(levelInfo.getId());
+        if (level != null) {
+            return level;
+        }
+
+        try {
+            Future<LevelData> preloaded = pending.remove(levelInfo.getId());
+            // Only blocks if the worker is still parsing
+            level = preloaded != null ? preloaded.get() : readLevel(levelInfo);
+            cache.put(levelInfo.getId(), level);
+            return level;
+        } catch (ExecutionException e) {
+            Gdx.app.error("LevelLoader", "Error loading map: " + levelInfo.getFile(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            Gdx.app.error("LevelLoader", "Interrupted while loading map: " + levelInfo.getFile(), e);
+        } catch (IOException | GdxRuntimeException e) {
+            Gdx.app.error("LevelLoader", "Error loading map: " + levelInfo.getFile(), e);
+        }
+        return emptyLevel();
+    }
+
+    /**
+     * Reads a level, preferring the compiled binary file (maps/&lt;file&gt;.bin) over the properties file.
+     * The compiled level is read through a memory-mapped buffer and is only used if it is not older
+     * than the properties file it was compiled from.
+     *
+     * @param levelInfo The manifest entry of the level
+     * @return The parsed level
+     * @throws IOException if neither file can be read
+     */
+    static LevelData readLevel(LevelInfo levelInfo) throws IOException {
+        String baseName = "maps/" + levelInfo.getFile();
+        FileHandle binaryFile = Gdx.files.internal(baseName + LevelCodec.EXTENSION);
+        FileHandle textFile = Gdx.files.internal(baseName + ".properties");
+
+        if (binaryFile.exists() && (!textFile.exists() || binaryFile.lastModified() >= textFile.lastModified())) {
+            try {
+                return LevelCodec.read(mapFile(binaryFile));
+            } catch (IOException | GdxRuntimeException e) {
+                Gdx.app.error("LevelLoader", "Falling back to " + textFile.name(), e);
+            }
+        }
+
+        return LevelParser.parse(mapFile(textFile), levelInfo.getWidth(), levelInfo.getHeight());
+    }
+
+    /**
+     * Maps a file into memory, or reads it into a heap buffer if it cannot be mapped
+     * (for example when it is packed inside a jar).
+     *
+     * @param file The file to read
+     * @return A buffer holding the file contents
+     */
+    private static ByteBuffer mapFile(FileHandle file) {
+        try {
+            return file.map();
+        } catch (GdxRuntimeException e) {
+            return ByteBuffer.wrap(file.readBytes());
+        }
+    }
+
+    private static LevelData emptyLevel() {
+        byte[] tiles = new byte[15 * 15];
+        Arrays.fill(tiles, Tile.EMPTY);
+        return LevelData.fromTiles(15, 15, tiles, new ArrayList<>());
+    }
+
+    /**
+     * Stops the background thread and drops all preloaded and cached levels.
+     */
+    public void dispose() {
+        executor.shutdownNow();
+        pending.clear();
+        cache.clear();
+    }
+}
@@ -0,0 +1,100 @@
+package de.tum.cit.fop.maze;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * The LevelManifest lists every playable level. It is read once at startup from maps/levels.properties
+ * and drives both the levels menu and the MapLoader, so levels can be added or resized without recompiling.
+ * <p>
+ * Each entry has the form {@code level.<id> = <file>, <width>, <height>, <enemies>, <shadows>}.
+ * Levels are played in ascending id order.
+ */
+public class LevelManifest {
+    public static final String FILE = "maps/levels.properties";
+    private static final String KEY_PREFIX = "level.";
+
+    private final List<LevelInfo> levels; // Sorted by id
+    private final Map<Integer, Integer> indexById; // Position of each level in the sorted list
+
+    private LevelManifest(List<LevelInfo> levels) {
+        levels.sort((a, b) -> Integer.compare(a.getId(), b.getId()));
+        this.levels = Collections.unmodifiableList(levels);
+        this.indexById = new HashMap<>();
+        for (int i = 0; i < levels.size(); i++) {
+            indexById.put(levels.get(i).getId(), i);
+        }
+    }
+
+    /**
+     * Reads a manifest.
+     *
+     * @param reader The manifest text
+     * @return The manifest
+     * @throws IOException if the text cannot be read or an entry is malformed
+     */
+    public static LevelManifest read(Reader reader) throws IOException {
+        Properties properties = new Properties();
+        properties.load(reader);
+
+        List<LevelInfo> levels = new ArrayList<>();
+        for (String key : properties.stringPropertyNames()) {
+            if (!key.startsWith(KEY_PREFIX)) continue;
+
+            String[] fields = properties.getProperty(key).split(",");
+            try {
+                if (fields.length != 5) {
+                    throw new NumberFormatException("expected 5 fields but got " + fields.length);
+                }
+                levels.add(new LevelInfo(
+                        Integer.parseInt(key.substring(KEY_PREFIX.length()).trim()),
+                        fields[0].trim(),
+                        Integer.parseInt(fields[1].trim()),
+                        Integer.parseInt(fields[2].trim()),
+                        Integer.parseInt(fields[3].trim()),
+                        Integer.parseInt(fields[4].trim())
+                ));
+            } catch (NumberFormatException e) {
+                throw new IOException("Invalid level manifest entry " + key + ": " + e.getMessage(), e);
+            }
+        }
+        return new LevelManifest(levels);
+    }
+
+    /**
+     * Returns the level with the given id.
+     *
+     * @param id The level number
+     * @return The level, or null if the manifest has no such level
+     */
+    public LevelInfo getLevel(int id) {
+        Integer index = indexById.get(id);
+        return index != null ? levels.get(index) : null;
+    }
+
+    /**
+     * Returns the level played after the given one.
+     *
+     * @param id The current level number
+     * @return The next level, or null if the given level is the last one or not in the manifest
+     */
+    public LevelInfo getNextLevel(int id) {
+        Integer index = indexById.get(id);
+        return index != null && index + 1 < levels.size() ? levels.get(index + 1) : null;
+    }
+
+    /**
+     * Returns all levels in play order.
+     *
+     * @return An unmodifiable list sorted by id
+     */
+    public List<LevelInfo> getLevels() {
+        return levels;
+    }
+}
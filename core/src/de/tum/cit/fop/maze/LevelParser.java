@@ -0,0 +1,213 @@
+package de.tum.cit.fop.maze;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The LevelParser reads the text level format ("x,y=type" lines, as in maps/*.properties)
+ * straight from the file bytes into a tile array.
+ * <p>
+ * Unlike loading the file into java.util.Properties, it creates no objects per entry: no strings,
+ * no split arrays and no hashtable. Apart from the tile array itself, memory is only allocated
+ * for the warnings about bad lines. Comments ("#" or "!"), blank lines, whitespace around the
+ * separators, ":" instead of "=" and any line ending are accepted.
+ * Optional "Width" and "Height" entries override the default size wherever they appear.
+ */
+public final class LevelParser {
+    private final ByteBuffer text;
+    private final int limit;
+    private int pos;
+    private int value; // Result of the last parseInt call
+    private final List<String> warnings = new ArrayList<>();
+
+    private LevelParser(ByteBuffer text) {
+        this.text = text;
+        this.pos = text.position();
+        this.limit = text.limit();
+    }
+
+    /**
+     * Parses a level from the bytes of a text level file.
+     *
+     * @param text          The file contents, e.g. a memory-mapped file; read from its position to its limit
+     * @param defaultWidth  The width to use if the file has no Width entry
+     * @param defaultHeight The height to use if the file has no Height entry
+     * @return The parsed level; bad lines are skipped and reported in its warnings
+     */
+    public static LevelData parse(ByteBuffer text, int defaultWidth, int defaultHeight) {
+        LevelParser parser = new LevelParser(text);
+        parser.skipByteOrderMark();
+        int start = parser.pos;
+
+        // The size has to be known before the first tile is placed
+        long size = parser.scanSize(defaultWidth, defaultHeight);
+        int width = (int) (size >>> 32);
+        int height = (int) size;
+
+        parser.pos = start;
+        byte[] tiles = LevelData.emptyTiles(width, height);
+        parser.parseTiles(tiles, width, height);
+        return LevelData.fromTiles(width, height, tiles, parser.warnings);
+    }
+
+    /**
+     * Looks only at lines starting with a letter to find the Width and Height entries.
+     *
+     * @return The width in the upper and the height in the lower 32 bits
+     */
+    private long scanSize(int width, int height) {
+        int lineNumber = 0;
+        while (pos < limit) {
+            lineNumber++;
+            skipSpaces();
+            if (pos < limit && isLetter(text.get(pos))) {
+                boolean isWidth = matchKeyword("Width");
+                boolean isHeight = !isWidth && matchKeyword("Height");
+                if ((isWidth || isHeight) && skipSeparator() && parseInt() && value > 0 && atLineEnd()) {
+                    if (isWidth) width = value;
+                    else height = value;
+                } else if (isWidth || isHeight) {
+                    warnings.add("Line " + lineNumber + ": invalid " + (isWidth ? "Width" : "Height") + " entry");
+                }
+            }
+            skipLine();
+        }
+        return ((long) width << 32) | (height & 0xFFFFFFFFL);
+    }
+
+    private void parseTiles(byte[] tiles, int width, int height) {
+        int lineNumber = 0;
+        while (pos < limit) {
+            lineNumber++;
+            skipSpaces();
+            if (pos >= limit || isLineEnd(text.get(pos)) || text.get(pos) == '#' || text.get(pos) == '!') {
+                skipLine();
+                continue;
+            }
+            if (isLetter(text.get(pos))) {
+                // Width and Height were handled by scanSize
+                if (!matchKeyword("Width") && !matchKeyword("Height")) {
+                    warnings.add("Line " + lineNumber + ": unknown key");
+                }
+                skipLine();
+                continue;
+            }
+
+            if (!parseInt()) {
+                badLine(lineNumber);
+                continue;
+            }
+            int x = value;
+            skipSpaces();
+            if (pos >= limit || text.get(pos) != ',') {
+                badLine(lineNumber);
+                continue;
+            }
+            pos++;
+            skipSpaces();
+            if (!parseInt()) {
+                badLine(lineNumber);
+                continue;
+            }
+            int y = value;
+            if (!skipSeparator() || !parseInt() || !atLineEnd()) {
+                badLine(lineNumber);
+                continue;
+            }
+            if (value < Byte.MIN_VALUE || value > Byte.MAX_VALUE) {
+                warnings.add("Line " + lineNumber + ": tile type out of range: " + value);
+            } else if (x < 0 || x >= width || y < 0 || y >= height) {
+                warnings.add("Line " + lineNumber + ": position " + x + "," + y + " is outside the map");
+            } else {
+                tiles[y * width + x] = (byte) value;
+            }
+            skipLine();
+        }
+    }
+
+    private void badLine(int lineNumber) {
+        warnings.add("Line " + lineNumber + ": invalid map data");
+        skipLine();
+    }
+
+    /**
+     * Parses an optionally signed decimal integer at the current position into {@link #value}.
+     *
+     * @return false if there is no number or it does not fit into an int
+     */
+    private boolean parseInt() {
+        boolean negative = false;
+        if (pos < limit && (text.get(pos) == '-' || text.get(pos) == '+')) {
+            negative = text.get(pos) == '-';
+            pos++;
+        }
+        int digits = 0;
+        long result = 0;
+        while (pos < limit) {
+            byte c = text.get(pos);
+            if (c < '0' || c > '9') break;
+            result = result * 10 + (c - '0');
+            if (result > Integer.MAX_VALUE) return false;
+            digits++;
+            pos++;
+        }
+        value = (int) (negative ? -result : result);
+        return digits > 0;
+    }
+
+    /**
+     * Skips the key/value separator: "=" or ":" surrounded by optional spaces.
+     *
+     * @return false if there is no separator
+     */
+    private boolean skipSeparator() {
+        skipSpaces();
+        if (pos >= limit || (text.get(pos) != '=' && text.get(pos) != ':')) return false;
+        pos++;
+        skipSpaces();
+        return true;
+    }
+
+    private boolean matchKeyword(String keyword) {
+        int length = keyword.length();
+        if (pos + length > limit) return false;
+        for (int i = 0; i < length; i++) {
+            if (text.get(pos + i) != keyword.charAt(i)) return false;
+        }
+        // The key must end here, "Widths" is not "Width"
+        if (pos + length < limit && isLetter(text.get(pos + length))) return false;
+        pos += length;
+        return true;
+    }
+
+    private boolean atLineEnd() {
+        skipSpaces();
+        return pos >= limit || isLineEnd(text.get(pos));
+    }
+
+    private void skipSpaces() {
+        while (pos < limit && (text.get(pos) == ' ' || text.get(pos) == '\t' || text.get(pos) == '\f')) pos++;
+    }
+
+    private void skipLine() {
+        while (pos < limit && !isLineEnd(text.get(pos))) pos++;
+        if (pos < limit && text.get(pos) == '\r') pos++;
+        if (pos < limit && text.get(pos) == '\n') pos++;
+    }
+
+    private void skipByteOrderMark() {
+        if (limit - pos >= 3 && text.get(pos) == (byte) 0xEF && text.get(pos + 1) == (byte) 0xBB
+                && text.get(pos + 2) == (byte) 0xBF) {
+            pos += 3;
+        }
+    }
+
+    private static boolean isLineEnd(byte c) {
+        return c == '\n' || c == '\r';
+    }
+
+    private static boolean isLetter(byte c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+}
@@ -31,58 +31,25 @@ public LevelsMenuScreen(MazeRunnerGame game) {
         // Add title
         table.add(new Label("CHOOSE YOUR LEVEL", game.getSkin(), "title")).padBottom(80).row();
 
-        // Add buttons for each level
-        TextButton level1Button = new TextButton("LEVEL 1", game.getSkin());
-        table.add(level1Button).width(270).padBottom(18).row();
-        level1Button.addListener(new ChangeListener() {
-            @Override
-            public void changed(ChangeEvent event, Actor actor) {
-                GameScreen gameScreen = new GameScreen(game, 1);
-                game.setGameScreen(gameScreen);
-                game.pushScreen(gameScreen);
-                game.pushScreen(new CutsceneScreen(game, gameScreen));
-            }
-        });
-
-        TextButton level2Button = new TextButton("LEVEL 2", game.getSkin());
-        table.add(level2Button).width(270).padBottom(18).row();
-        level2Button.addListener(new ChangeListener() {
-            @Override
-            public void changed(ChangeEvent event, Actor actor) {
-                game.setGameScreen(new GameScreen(game, 2));
-                game.pushScreen(game.getGameScreen());
-            }
-        });
+        // Add a button for each level in the manifest
+        for (LevelInfo level : game.getLevelManifest().getLevels()) {
+            TextButton levelButton = new TextButton("LEVEL " + level.getId(), game.getSkin());
+            table.add(levelButton).width(270).padBottom(18).row();
+            levelButton.addListener(new ChangeListener() {
+                @Override
+                public void changed(ChangeEvent event, Actor actor) {
+                    // The story is told before the first level, which is loaded while it is shown
+                    if (level == game.getLevelManifest().getLevels().get(0)) {
+                        game.pushScreen(new CutsceneScreen(game, level.getId()));
+                        return;
+                    }
 
-        TextButton level3Button = new TextButton("LEVEL 3", game.getSkin());
-        table.add(level3Button).width(270).padBottom(18).row();
-        level3Button.addListener(new ChangeListener() {
-            @Override
-            public void changed(ChangeEvent event, Actor actor) {
-                game.setGameScreen(new GameScreen(game, 3));
-                game.pushScreen(game.getGameScreen());
-            }
-        });
-
-        TextButton level4Button = new TextButton("LEVEL 4", game.getSkin());
-        table.add(level4Button).width(270).padBottom(18).row();
-        level4Button.addListener(new ChangeListener() {
-            @Override
-            public void changed(ChangeEvent event, Actor actor) {
-                game.setGameScreen(new GameScreen(game, 4));
-                game.pushScreen(game.getGameScreen());
-            }
-        });
-
-        TextButton level5Button = new TextButton("LEVEL 5", game.getSkin());
-        table.add(level5Button).width(270).padBottom(18).row();
-        level5Button.addListener(new ChangeListener() {
-            @Override
-            public void changed(ChangeEvent event, Actor actor) {
-                game.setGameScreen(new GameScreen(game, 5));
-                game.pushScreen(game.getGameScreen());
-            }
-        });
+                    GameScreen gameScreen = new GameScreen(game, level.getId());
+                    game.setGameScreen(gameScreen);
+                    game.pushScreen(gameScreen);
+                }
+            });
+        }
 
         // Add a "Back" button
         TextButton backButton = new TextButton("BACK", game.getSkin());
@@ -0,0 +1,151 @@
+package de.tum.cit.fop.maze;
+
+import com.badlogic.gdx.utils.IntArray;
+import java.util.Arrays;
+
+/**
+ * The LineOfSight class answers whether one tile can be seen from another on a TileGrid.
+ * <p>
+ * A ray is cast between the two tile centres with an integer grid traversal that visits every tile
+ * the line touches; any tile with one of the blocking flags stops it. A line running exactly through
+ * a corner only passes if at least one of the two tiles beside the corner is open, so two walls
+ * touching diagonally cannot be seen through.
+ * <p>
+ * Answers are kept in a small direct-mapped cache keyed by the (from tile, to tile) pair. Entities
+ * rarely change tiles and the player changes tiles a few times a second, so most queries are cache
+ * hits. The cache is invalidated as a whole when a tile changes.
+ */
+public class LineOfSight {
+    private static final int CACHE_SIZE = 4096; // Must be a power of two
+    private static final long EMPTY = -1;
+
+    private final TileGrid grid;
+    private final int blockingFlags;
+    private final int width;
+    private final long[] cacheKeys = new long[CACHE_SIZE];
+    private final boolean[] cacheResults = new boolean[CACHE_SIZE];
+    private int hits;
+    private int misses;
+
+    /**
+     * Creates a line of sight service for a grid.
+     *
+     * @param grid          The tile grid to cast rays over
+     * @param blockingFlags The tile flags that block sight, e.g. TileGrid.SOLID
+     */
+    public LineOfSight(TileGrid grid, int blockingFlags) {
+        this.grid = grid;
+        this.blockingFlags = blockingFlags;
+        this.width = grid.getWidth();
+        Arrays.fill(cacheKeys, EMPTY);
+    }
+
+    /**
+     * Checks if the centre of one tile can be seen from the centre of another.
+     * The start and end tiles themselves never block.
+     *
+     * @param fromX The column of the tile looking
+     * @param fromY The row of the tile looking
+     * @param toX   The column of the tile looked at
+     * @param toY   The row of the tile looked at
+     * @return true if no blocking tile lies between them
+     */
+    public boolean canSee(int fromX, int fromY, int toX, int toY) {
+        if (!grid.isInside(fromX, fromY) || !grid.isInside(toX, toY)) return false;
+        long key = (long) (fromY * width + fromX) << 32 | (toY * width + toX);
+        int slot = slot(key);
+        if (cacheKeys[slot] == key) {
+            hits++;
+            return cacheResults[slot];
+        }
+        misses++;
+        boolean visible = cast(fromX, fromY, toX, toY);
+        cacheKeys[slot] = key;
+        cacheResults[slot] = visible;
+        return visible;
+    }
+
+    /**
+     * Checks a batch of tiles against one target tile, e.g. all enemies near the player.
+     *
+     * @param fromTiles The row-major indices of the tiles looking
+     * @param toX       The column of the tile looked at
+     * @param toY       The row of the tile looked at
+     * @param results   Receives one answer per entry of fromTiles, in the same order
+     */
+    public void canSee(IntArray fromTiles, int toX, int toY, boolean[] results) {
+        if (results.length < fromTiles.size) {
+            throw new IllegalArgumentException("Need " + fromTiles.size + " results but got " + results.length);
+        }
+        for (int i = 0; i < fromTiles.size; i++) {
+            int tile = fromTiles.get(i);
+            results[i] = canSee(tile % width, tile / width, toX, toY);
+        }
+    }
+
+    /**
+     * Forgets all cached answers. Called when a tile of the grid changed.
+     */
+    public void invalidate() {
+        Arrays.fill(cacheKeys, EMPTY);
+    }
+
+    /**
+     * Walks the tiles the line between the two tile centres touches.
+     */
+    private boolean cast(int fromX, int fromY, int toX, int toY) {
+        int dx = Math.abs(toX - fromX);
+        int dy = Math.abs(toY - fromY);
+        int stepX = toX > fromX ? 1 : -1;
+        int stepY = toY > fromY ? 1 : -1;
+        int x = fromX;
+        int y = fromY;
+        int remaining = dx + dy; // Tiles left to enter
+        int error = dx - dy; // Positive: the line leaves the current tile sideways first
+
+        while (remaining > 0) {
+            if (error > 0) {
+                x += stepX;
+                error -= 2 * dy;
+                remaining--;
+            } else if (error < 0) {
+                y += stepY;
+                error += 2 * dx;
+                remaining--;
+            } else {
+                // Exactly through a corner: blocked only if both tiles beside it block
+                if (blocks(x + stepX, y) && blocks(x, y + stepY)) return false;
+                x += stepX;
+                y += stepY;
+                error += 2 * dx - 2 * dy;
+                remaining -= 2;
+            }
+            if (remaining > 0 && blocks(x, y)) return false;
+        }
+        return true;
+    }
+
+    private boolean blocks(int x, int y) {
+        return (grid.classify(x, y) & blockingFlags) != 0;
+    }
+
+    private static int slot(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash >>> 52) & (CACHE_SIZE - 1);
+    }
+
+    /**
+     * @return The grid width in tiles, for building the row-major tile indices of batch queries
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHits() {
+        return hits;
+    }
+
+    public int getMisses() {
+        return misses;
+    }
+}
@@ -0,0 +1,77 @@
+package de.tum.cit.fop.maze;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The MapCompiler converts the levels listed in the level manifest into the binary level format.
+ * It is run by the core module's compileMaps Gradle task and does not need libGDX.
+ * While compiling it checks the sizes and counts in the manifest against the map files.
+ * <p>
+ * Usage: {@code MapCompiler <maps directory> [output directory]}
+ */
+public final class MapCompiler {
+
+    private MapCompiler() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        File inputDir = new File(args.length > 0 ? args[0] : "maps");
+        File outputDir = new File(args.length > 1 ? args[1] : inputDir.getPath());
+        if (!outputDir.isDirectory() && !outputDir.mkdirs()) {
+            throw new IOException("Cannot create " + outputDir);
+        }
+
+        LevelManifest manifest;
+        File manifestFile = new File(inputDir, new File(LevelManifest.FILE).getName());
+        try (Reader reader = new FileReader(manifestFile)) {
+            manifest = LevelManifest.read(reader);
+        }
+
+        for (LevelInfo info : manifest.getLevels()) {
+            File file = new File(inputDir, info.getFile() + ".properties");
+            LevelData level;
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                level = LevelParser.parse(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()),
+                        info.getWidth(), info.getHeight());
+            }
+            for (String warning : level.getWarnings()) {
+                System.err.println(file.getName() + ": " + warning);
+            }
+            checkManifest(info, level);
+
+            File output = new File(outputDir, info.getFile() + LevelCodec.EXTENSION);
+            try (OutputStream out = new BufferedOutputStream(new FileOutputStream(output))) {
+                LevelCodec.write(level, out);
+            }
+            System.out.println("Compiled " + file.getName() + " -> " + output.getName()
+                    + " (" + level.getWidth() + "x" + level.getHeight() + ")");
+        }
+    }
+
+    /**
+     * Reports every value in a manifest entry that does not match the parsed level.
+     *
+     * @param info  The manifest entry
+     * @param level The level parsed from the entry's map file
+     */
+    private static void checkManifest(LevelInfo info, LevelData level) {
+        String prefix = LevelManifest.FILE + ": level " + info.getId() + " ";
+        if (info.getWidth() != level.getWidth() || info.getHeight() != level.getHeight()) {
+            System.err.println(prefix + "size is " + level.getWidth() + "x" + level.getHeight());
+        }
+        if (info.getEnemyCount() != level.getEnemySpawns().length) {
+            System.err.println(prefix + "has " + level.getEnemySpawns().length + " enemies");
+        }
+        if (info.getShadowCount() != level.getShadowSpawns().length) {
+            System.err.println(prefix + "has " + level.getShadowSpawns().length + " shadows");
+        }
+    }
+}
@@ -1,56 +1,53 @@
 package de.tum.cit.fop.maze;
 
 import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.SpriteCache;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.Vector2;
-import java.io.IOException;
-import java.util.*;
+import com.badlogic.gdx.utils.IntArray;
+import java.util.List;
 
 /**
- * The MapLoader class handles loading, managing, and rendering game maps for the game.
- * It creates multiple layers of the map including floor tiles, objects, enemies, and special items.
- * This class also handles collision detection and item collection mechanics.
+ * The MapLoader class prepares and renders the map of a GameWorld.
+ * It bakes the floor and wall layers into a chunk cache and draws the animated items, the enemies
+ * and the shadows on top. The MapLoader only reads the world; it observes tile changes to rebuild
+ * the affected chunks, and never changes the game state itself.
  */
-public class MapLoader {
-    private static final int TILE_SIZE = 64;
+public class MapLoader implements GameWorld.Listener {
+    static final int TILE_SIZE = GameWorld.TILE_SIZE; // World size of a tile in pixels
     private static final int SPRITE_SIZE = 16;
-    private final Map<Integer, TextureRegion> tileRegions;
-    private int[][] baseLayer;  // Floor   layer
-    private int[][] objectLayer;  // Walls, items, and objects layer
-    private Vector2 startPosition;
-    private List<Vector2> exitPositions = new ArrayList<>();
+    private final TextureRegion[] tileRegions; // Indexed by tile type, null for types that are not drawn
+    private GameWorld world; // The world being drawn
+    private TileGrid grid;  // Walls, items, and objects layer; the floor is drawn under every tile
     private int mapWidth;
     private int mapHeight;
-    private final Texture spriteSheet1;
-    private final Texture spriteSheet2;
-    private final Texture spriteSheet3;
-    private final Texture spriteSheet4;
-    private final Texture spriteSheet5;
+    private final AnimationCache animations; // Shared enemy and shadow animations
 
     private final TextureRegion floorRegion;
-    private boolean statueCollected = false;
     private float heartAnimationTime = 0f;
     private static final float HEART_ANIMATION_SPEED = 2f; // Speed of the pulse
     private static final float HEART_MIN_SCALE = 0.6f; // Minimum scale factor
     private static final float HEART_MAX_SCALE = 0.8f; // Maximum scale factor
-    private List<Enemy> enemies;
-    private List<Shadow> shadows;
-    private static final String[] ENEMY_TYPES = {"ghost","blob", "spider", "bat"};
+    private TileChunkCache chunkCache; // Baked floor and wall layers
+    private final IntArray nearby = new IntArray(); // Reused result of spatial hash queries
 
     /**
-     * Initialises a new MapLoader instance with required textures and tile regions.
-     * Sets up sprite sheets and initialises collections for enemies and shadows.
+     * Initialises a new MapLoader instance with required tile regions.
+     * Looks up the sprite sheets in the atlas.
+     *
+     * @param spriteAtlas The packed sprite sheets to take tile regions from
+     * @param animations  The shared enemy and shadow animations
      */
-    public MapLoader() {
-        spriteSheet1 = new Texture(Gdx.files.internal("basictiles.png"));
-        spriteSheet2 = new Texture(Gdx.files.internal("basictiles2.png"));
-        spriteSheet3 = new Texture(Gdx.files.internal("things.png"));
-        spriteSheet5 = new Texture(Gdx.files.internal("tombstone.png"));
-        spriteSheet4 = new Texture(Gdx.files.internal("objects.png"));
-        tileRegions = new HashMap<>();
-        enemies = new ArrayList<>();
-        shadows = new ArrayList<>();
+    public MapLoader(SpriteAtlas spriteAtlas, AnimationCache animations) {
+        this.animations = animations;
+        TextureRegion spriteSheet1 = spriteAtlas.getRegion("basictiles");
+        TextureRegion spriteSheet2 = spriteAtlas.getRegion("basictiles2");
+        TextureRegion spriteSheet3 = spriteAtlas.getRegion("things");
+        TextureRegion spriteSheet5 = spriteAtlas.getRegion("tombstone");
+        TextureRegion spriteSheet4 = spriteAtlas.getRegion("objects");
+        tileRegions = new TextureRegion[Tile.TYPE_COUNT];
 
         // Initialize texture regions
         floorRegion = new TextureRegion(spriteSheet2, 2 * SPRITE_SIZE, 1 * SPRITE_SIZE, SPRITE_SIZE, SPRITE_SIZE);
@@ -63,414 +60,217 @@ public MapLoader() {
         TextureRegion entryRegion = new TextureRegion(spriteSheet2, 1 * SPRITE_SIZE, 7 * SPRITE_SIZE, SPRITE_SIZE, SPRITE_SIZE);
         TextureRegion heartRegion = new TextureRegion(spriteSheet4, 63, 0, 15, 17);
 
-        tileRegions.put(-1, floorRegion); // Floor
-        tileRegions.put(0, wallRegion);   // Wall
-        tileRegions.put(1, entryRegion);
-        tileRegions.put(2, exitRegion);   // Exit
-        tileRegions.put(3, trapRegion);// Trap
-        tileRegions.put(5, keyRegion);    // Key
-        tileRegions.put(6, heartRegion);  // Heart
-        tileRegions.put(7, buffRegion);   // Buff
-        tileRegions.put(9, tombstoneRegion);
+        tileRegions[Tile.WALL] = wallRegion;
+        tileRegions[Tile.ENTRY] = entryRegion;
+        tileRegions[Tile.EXIT] = exitRegion;
+        tileRegions[Tile.TRAP] = trapRegion;
+        tileRegions[Tile.STATUE] = keyRegion;
+        tileRegions[Tile.HEART] = heartRegion;
+        tileRegions[Tile.BUFF] = buffRegion;
+        tileRegions[Tile.TOMBSTONE] = tombstoneRegion;
     }
 
     /**
-     * Loads a map from a properties file based on the level number.
-     * Initialises map dimensions and creates the floor and object layers.
+     * Loads the map of a world for drawing and starts observing its tile changes.
+     * Bakes the static layers once; the world itself is created beforehand from a parsed level,
+     * so only the work that needs textures is left for the render thread.
      *
-     * @param levelNumber The level number to load (determines which properties file to use)
+     * @param world The world to draw
      */
-    public void loadMap(int levelNumber) {
-        String fileName = "level-" + levelNumber + ".properties";
-        Properties properties = new Properties();
-
-        try {
-            properties.load(Gdx.files.internal("maps/" + fileName).reader());
-
-            // Get map dimensions with level-specific defaults
-            switch(levelNumber) {
-                case 1: mapWidth = Integer.parseInt(properties.getProperty("Width", "15"));
-                    mapHeight = Integer.parseInt(properties.getProperty("Height", "15")); break;
-                case 2: mapWidth = Integer.parseInt(properties.getProperty("Width", "40"));
-                    mapHeight = Integer.parseInt(properties.getProperty("Height", "40")); break;
-                case 3: mapWidth = Integer.parseInt(properties.getProperty("Width", "40"));
-                    mapHeight = Integer.parseInt(properties.getProperty("Height", "40")); break;
-                case 4: mapWidth = Integer.parseInt(properties.getProperty("Width", "80"));
-                    mapHeight = Integer.parseInt(properties.getProperty("Height", "80")); break;
-                case 5: mapWidth = Integer.parseInt(properties.getProperty("Width", "20"));
-                    mapHeight = Integer.parseInt(properties.getProperty("Height", "20")); break;
-                default: mapWidth = Integer.parseInt(properties.getProperty("Width", "15"));
-                    mapHeight = Integer.parseInt(properties.getProperty("Height", "15"));
-            }
-
-            // Initialize both layers
-            initializeLayers();
-
-            // Create the base floor layer
-            createFloorLayer();
-
-            // Create the object layer (walls, borders, and objects)
-            createObjectLayer(properties);
-
-        } catch (IOException e) {
-            Gdx.app.error("MapLoader", "Error loading map: " + fileName, e);
-            // Load a default empty map
-            mapWidth = 15;
-            mapHeight = 15;
-            initializeLayers();
-            createFloorLayer();
-        }
-    }
-
-    private void initializeLayers() {
-        baseLayer = new int[mapWidth][mapHeight];
-        objectLayer = new int[mapWidth][mapHeight];
-
-        // Initialize object layer with empty spaces
-        for (int x = 0; x < mapWidth; x++) {
-            for (int y = 0; y < mapHeight; y++) {
-                objectLayer[x][y] = -1;
-            }
+    public void loadMap(GameWorld world) {
+        if (this.world != null) {
+            this.world.removeListener(this);
         }
-    }
-
-    private void createFloorLayer() {
-        // Fill the entire base layer with floor tiles
-        for (int x = 0; x < mapWidth; x++) {
-            for (int y = 0; y < mapHeight; y++) {
-                baseLayer[x][y] = -1; // Floor tile
-            }
-        }
-    }
-
-    private void createObjectLayer(Properties properties) {
-        // First, create walls around the border
-        for (int x = 0; x < mapWidth; x++) {
-            objectLayer[x][0] = 0; // Bottom wall
-            objectLayer[x][mapHeight - 1] = 0; // Top wall
-        }
-        for (int y = 0; y < mapHeight; y++) {
-            objectLayer[0][y] = 0; // Left wall
-            objectLayer[mapWidth - 1][y] = 0; // Right wall
+        for (String warning : world.getLevel().getWarnings()) {
+            Gdx.app.error("MapLoader", warning);
         }
 
-        // Then place all objects from the properties file
-        for (String key : properties.stringPropertyNames()) {
-            if (key.equals("Width") || key.equals("Height")) continue;
-
-            try {
-                String[] coordinates = key.split(",");
-                int x = Integer.parseInt(coordinates[0]);
-                int y = Integer.parseInt(coordinates[1]);
-
-                if (x >= 0 && x < mapWidth && y >= 0 && y < mapHeight) {
-                    int tileType = Integer.parseInt(properties.getProperty(key));
-                    objectLayer[x][y] = tileType;
-
-                    // Store special positions
-                    if (tileType == 1) {
-                        startPosition = new Vector2(x * TILE_SIZE, y * TILE_SIZE);
-                    } else if (tileType == 2) { // Exit tile
-                        exitPositions.add(new Vector2(x * TILE_SIZE, y * TILE_SIZE));
-                    }
-
-                    // create enemies
-                    if (tileType == 4) {
-                        Random random = new Random();
-                        String enemyType = ENEMY_TYPES[random.nextInt(ENEMY_TYPES.length)]; // Randomly pick an enemy type
-
-                        Enemy newEnemy = new Enemy(
-                                x * TILE_SIZE,
-                                y * TILE_SIZE,
-                                new Texture(Gdx.files.internal("mobs.png")),
-                                8
-                        );
-
-                        newEnemy.createEnemy(enemyType); // Set the enemy type
-                        enemies.add(newEnemy);
-                    }
-                    if (tileType == 8) {
-                        Shadow shadowEnemy = new Shadow(
-                                x * TILE_SIZE,
-                                y * TILE_SIZE,
-                                new Texture(Gdx.files.internal("shadow.png"))
-                        );
+        this.world = world;
+        grid = world.getGrid();
+        mapWidth = grid.getWidth();
+        mapHeight = grid.getHeight();
+        world.addListener(this);
 
-                        shadowEnemy.createShadowEnemy();
-                        shadows.add(shadowEnemy);
-                    }
-
-                }
-            } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
-                Gdx.app.error("MapLoader", "Invalid map data: " + key);
-            }
-        }
+        // Bake the static layers once
+        createChunkCache();
     }
 
     /**
-     * Renders the entire map including floor tiles, objects, enemies, and shadows.
-     * Handles special animations for items like hearts.
+     * Rebuilds the chunk of a changed tile before the next frame.
      *
-     * @param game The main game instance containing the SpriteBatch
-     * @param playerPosition The current position of the player
+     * @param tileX The tile column
+     * @param tileY The tile row
      */
-    public void renderMap(MazeRunnerGame game, Vector2 playerPosition) {
-        if (baseLayer == null || objectLayer == null) return;
-
-        // Update heart animation time
-        heartAnimationTime += Gdx.graphics.getDeltaTime();
-
-        // Calculate current heart scale using a sine wave
-        float scaleProgress = (float) Math.sin(heartAnimationTime * HEART_ANIMATION_SPEED);
-        float currentHeartScale = ((HEART_MAX_SCALE - HEART_MIN_SCALE) * (scaleProgress + 1f) / 2f) + HEART_MIN_SCALE;
-
-        // Render base layer (floor) first
-        for (int x = 0; x < mapWidth; x++) {
-            for (int y = 0; y < mapHeight; y++) {
-                game.getSpriteBatch().draw(
-                        floorRegion,
-                        x * TILE_SIZE,
-                        y * TILE_SIZE,
-                        TILE_SIZE,
-                        TILE_SIZE
-                );
-            }
-        }
-
-        // Render object layer on top
-        for (int x = 0; x < mapWidth; x++) {
-            for (int y = 0; y < mapHeight; y++) {
-                int tileType = objectLayer[x][y];
-                if (tileType >= 0 && tileRegions.containsKey(tileType)) {
-                    if (tileType == 6) { // Heart tile
-                        // Calculate center position for scaling
-                        float centerX = x * TILE_SIZE + TILE_SIZE / 2f;
-                        float centerY = y * TILE_SIZE + TILE_SIZE / 2f;
-
-                        // Calculate scaled dimensions
-                        float scaledWidth = TILE_SIZE * currentHeartScale;
-                        float scaledHeight = TILE_SIZE * currentHeartScale;
-
-                        // Draw heart with animation
-                        game.getSpriteBatch().draw(
-                                tileRegions.get(tileType),
-                                centerX - scaledWidth / 2f, // Adjust position to maintain center
-                                centerY - scaledHeight / 2f,
-                                scaledWidth,
-                                scaledHeight
-                        );
-                    } else {
-                        // Draw other tiles normally
-                        game.getSpriteBatch().draw(
-                                tileRegions.get(tileType),
-                                x * TILE_SIZE,
-                                y * TILE_SIZE,
-                                TILE_SIZE,
-                                TILE_SIZE
-                        );
-                    }
-                }
-            }
-        }
-        // Render dynamic enemies
-        for (Enemy enemy : enemies) {
-            enemy.update(Gdx.graphics.getDeltaTime(), playerPosition, this);
-            enemy.render(game.getSpriteBatch());
-        }
-
-        for (Shadow shadow : shadows) {
-            shadow.update(Gdx.graphics.getDeltaTime(), playerPosition);
-            shadow.render(game.getSpriteBatch());
-        }
-    }
-
-    //Getters and Setters
-    public Vector2 getStartPosition() {
-        return startPosition;
-    }
-
-    public List<Vector2> getExitPositions() {
-        return exitPositions;
+    @Override
+    public void tileChanged(int tileX, int tileY) {
+        chunkCache.invalidate(tileX, tileY);
     }
 
-    public List<Enemy> getEnemies() {
-        return enemies;
-    }
-
-    public List<Shadow> getShadows() {
-        return shadows;
+    private void createChunkCache() {
+        if (chunkCache != null) {
+            chunkCache.dispose();
+        }
+        chunkCache = new TileChunkCache(this, mapWidth, mapHeight, TILE_SIZE);
     }
 
     /**
-     * Checks if a given position contains an exit tile.
+     * Checks if a tile type is drawn by the chunk cache rather than every frame.
+     * Hearts are animated, so they are the only object tiles left out of the cache.
      *
-     * @param x The x-coordinate to check
-     * @param y The y-coordinate to check
-     * @return true if the position contains an exit tile, false otherwise
+     * @param tileType The object layer tile type
+     * @return true if the tile is static and has a texture region
      */
-    public boolean isExit(float x, float y) {
-        int mapX = (int) (x / TILE_SIZE);
-        int mapY = (int) (y / TILE_SIZE);
-
-        if (mapX < 0 || mapX >= mapWidth || mapY < 0 || mapY >= mapHeight) {
-            return false;
-        }
-
-        return objectLayer[mapX][mapY] == 2;
+    private boolean isStaticObject(byte tileType) {
+        return tileType >= 0 && tileType < Tile.TYPE_COUNT && tileType != Tile.HEART && tileRegions[tileType] != null;
     }
 
     /**
-     * Checks if a given position contains a trap tile.
+     * Counts the sprites the chunk cache needs for a single tile.
      *
-     * @param x The x-coordinate to check
-     * @param y The y-coordinate to check
-     * @return true if the position contains a trap tile, false otherwise
+     * @param x The x-coordinate of the tile
+     * @param y The y-coordinate of the tile
+     * @return 2 if the tile has a floor and a static object, 1 if it only has a floor
      */
-    public boolean isTrap(float x, float y) {
-        int mapX = (int) (x / TILE_SIZE);
-        int mapY = (int) (y / TILE_SIZE);
-
-        if (mapX < 0 || mapX >= mapWidth || mapY < 0 || mapY >= mapHeight) {
-            return false;
-        }
-
-        return objectLayer[mapX][mapY] == 3; // 3 is the trap tile type
+    int countStaticSprites(int x, int y) {
+        return isStaticObject(grid.get(x, y)) ? 2 : 1;
     }
 
     /**
-     * Checks if a given position contains a statue/key tile.
+     * Adds the floor and any static object of a single tile to the given SpriteCache.
+     * Called by the TileChunkCache while it builds a chunk.
      *
-     * @param x The x-coordinate to check
-     * @param y The y-coordinate to check
-     * @return true if the position contains a statue tile, false otherwise
+     * @param cache The SpriteCache currently defining a chunk
+     * @param x The x-coordinate of the tile
+     * @param y The y-coordinate of the tile
+     * @return The number of sprites added
      */
-    public boolean isStatue(float x, float y) {
-        int mapX = (int) (x / TILE_SIZE);
-        int mapY = (int) (y / TILE_SIZE);
+    int cacheStaticTile(SpriteCache cache, int x, int y) {
+        cache.add(floorRegion, x * TILE_SIZE, y * TILE_SIZE, TILE_SIZE, TILE_SIZE);
 
-        if (mapX < 0 || mapX >= mapWidth || mapY < 0 || mapY >= mapHeight) {
-            return false;
+        byte tileType = grid.get(x, y);
+        if (isStaticObject(tileType)) {
+            cache.add(tileRegions[tileType], x * TILE_SIZE, y * TILE_SIZE, TILE_SIZE, TILE_SIZE);
+            return 2;
         }
-
-        return objectLayer[mapX][mapY] == 5; // 5 is the statue/key tile type
+        return 1;
     }
 
     /**
-     * Checks if a given position contains a wall tile.
+     * Renders the visible part of the map including floor tiles, objects, enemies, and shadows.
+     * Floor and wall layers come from the chunk cache, and only tiles and entities inside the view are iterated.
+     * Handles special animations for items like hearts.
      *
-     * @param x The x-coordinate to check
-     * @param y The y-coordinate to check
-     * @return true if the position contains a wall or is out of bounds, false otherwise
+     * @param game The main game instance containing the SpriteBatch
+     * @param camera The camera the map is viewed through
+     * @param view The world rectangle currently visible through the camera
+     * @param alpha How far the frame is between the previous and the current simulation step, 0 to 1
      */
-    public boolean isWall(float x, float y) {
-        int mapX = (int) (x / TILE_SIZE);
-        int mapY = (int) (y / TILE_SIZE);
+    public void renderMap(MazeRunnerGame game, OrthographicCamera camera, ViewBounds view, float alpha) {
+        if (grid == null) return;
 
-        if (mapX < 0 || mapX >= mapWidth || mapY < 0 || mapY >= mapHeight) {
-            return true; // Consider out of bounds as walls
-        }
+        SpriteBatch batch = game.getSpriteBatch();
+        float deltaTime = Gdx.graphics.getDeltaTime();
 
-        return objectLayer[mapX][mapY] == 0 || objectLayer[mapX][mapY] == 9;
-    }
-
-    /**
-     * Checks if a given position contains a heart powerup.
-     *
-     * @param x The x-coordinate to check in pixels
-     * @param y The y-coordinate to check in pixels
-     * @return true if the position contains a heart, false otherwise
-     */
-    public boolean isHeart(float x, float y) {
-        int mapX = (int) (x / TILE_SIZE);
-        int mapY = (int) (y / TILE_SIZE);
-        return isValidPosition(mapX, mapY) && objectLayer[mapX][mapY] == 6;
-    }
+        // Update heart animation time
+        heartAnimationTime += deltaTime;
 
-    /**
-     * Checks if a given position contains a buff powerup.
-     *
-     * @param x The x-coordinate to check in pixels
-     * @param y The y-coordinate to check in pixels
-     * @return true if the position contains a buff, false otherwise
-     */
-    public boolean isBuff(float x, float y) {
-        int mapX = (int) (x / TILE_SIZE);
-        int mapY = (int) (y / TILE_SIZE);
-        return isValidPosition(mapX, mapY) && objectLayer[mapX][mapY] == 7;
-    }
+        // Calculate current heart scale using a sine wave
+        float scaleProgress = (float) Math.sin(heartAnimationTime * HEART_ANIMATION_SPEED);
+        float currentHeartScale = ((HEART_MAX_SCALE - HEART_MIN_SCALE) * (scaleProgress + 1f) / 2f) + HEART_MIN_SCALE;
 
-    /**
-     * Removes a buff powerup from the map at the specified position.
-     * Only removes the buff if one exists at the given coordinates.
-     *
-     * @param x The x-coordinate of the buff to collect in pixels
-     * @param y The y-coordinate of the buff to collect in pixels
-     */
-    public void collectBuff(float x, float y) {
-        int mapX = (int) (x / TILE_SIZE);
-        int mapY = (int) (y / TILE_SIZE);
-        if (isBuff(x, y)) {
-            objectLayer[mapX][mapY] = -1;
+        // Render the cached floor and wall chunks outside of the SpriteBatch
+        batch.end();
+        chunkCache.render(camera, view);
+        batch.begin();
+
+        // Only hearts are drawn per frame, and only those inside the view
+        int firstX = view.firstColumn(TILE_SIZE);
+        int firstY = view.firstRow(TILE_SIZE);
+        int lastX = view.lastColumn(TILE_SIZE, mapWidth);
+        int lastY = view.lastRow(TILE_SIZE, mapHeight);
+
+        for (int x = firstX; x <= lastX; x++) {
+            for (int y = firstY; y <= lastY; y++) {
+                if (grid.get(x, y) == Tile.HEART) {
+                    // Calculate center position for scaling
+                    float centerX = x * TILE_SIZE + TILE_SIZE / 2f;
+                    float centerY = y * TILE_SIZE + TILE_SIZE / 2f;
+
+                    // Calculate scaled dimensions
+                    float scaledWidth = TILE_SIZE * currentHeartScale;
+                    float scaledHeight = TILE_SIZE * currentHeartScale;
+
+                    // Draw heart with animation
+                    batch.draw(
+                            tileRegions[Tile.HEART],
+                            centerX - scaledWidth / 2f, // Adjust position to maintain center
+                            centerY - scaledHeight / 2f,
+                            scaledWidth,
+                            scaledHeight
+                    );
+                }
+            }
         }
-    }
 
-    /**
-     * Checks if given coordinates are within the map boundaries.
-     *
-     * @param x The x-coordinate to check
-     * @param y The y-coordinate to check
-     * @return true if the position is within map boundaries, false otherwise
-     */
-    private boolean isValidPosition(int x, int y) {
-        return x >= 0 && x < mapWidth && y >= 0 && y < mapHeight;
-    }
-
-    /**
-     * Removes a collected heart from the map at the specified position.
-     *
-     * @param x The x-coordinate of the heart to collect
-     * @param y The y-coordinate of the heart to collect
-     */
-    public void collectHeart(float x, float y) {
-        int mapX = (int) (x / TILE_SIZE);
-        int mapY = (int) (y / TILE_SIZE);
-        if (isHeart(x, y)) {
-            objectLayer[mapX][mapY] = -1;
+        renderEnemies(batch, view, alpha);
+
+        // Shadows don't move, so only the ones on screen are looked at
+        AnimationCache.Archetype shadowArchetype = animations.get(AnimationCache.SHADOW);
+        List<Shadow> shadows = world.getShadows();
+        nearby.clear();
+        queryAroundView(world.getShadowHash(), view, Shadow.SIZE, 0);
+        for (int i = 0; i < nearby.size; i++) {
+            Shadow shadow = shadows.get(nearby.get(i));
+            Vector2 position = shadow.getPosition();
+            if (view.overlaps(position.x, position.y, Shadow.SIZE, Shadow.SIZE)) {
+                batch.draw(shadowArchetype.getFrame(shadow.isStaring, shadow.getStateTime()),
+                        position.x, position.y, Shadow.SIZE, Shadow.SIZE);
+            }
         }
     }
 
     /**
-     * Removes a collected statue/key from the map and marks it as collected.
-     *
-     * @param x The x-coordinate of the statue to collect
-     * @param y The y-coordinate of the statue to collect
+     * Draws every enemy inside the view with its turning or chasing animation, between its last two
+     * simulated positions. Enemies that are not updated in a step keep drawing between the positions
+     * of their last update.
      */
-    public void collectStatue(float x, float y) {
-        int mapX = (int) (x / TILE_SIZE);
-        int mapY = (int) (y / TILE_SIZE);
-
-        if (isStatue(x, y)) {
-            statueCollected = true;
-            objectLayer[mapX][mapY] = -1;
+    private void renderEnemies(SpriteBatch batch, ViewBounds view, float alpha) {
+        EnemySystem enemies = world.getEnemies();
+        nearby.clear();
+        queryAroundView(enemies.getHash(), view, EnemySystem.SIZE, 0);
+        for (int i = 0; i < nearby.size; i++) {
+            int id = nearby.get(i);
+            float x = enemies.getX(id);
+            float y = enemies.getY(id);
+            if (view.overlaps(x, y, EnemySystem.SIZE, EnemySystem.SIZE)) {
+                float drawX = enemies.getPreviousX(id) + (x - enemies.getPreviousX(id)) * alpha;
+                float drawY = enemies.getPreviousY(id) + (y - enemies.getPreviousY(id)) * alpha;
+                TextureRegion frame = animations.get(enemies.getType(id)).getFrame(enemies.isChasing(id), enemies.getStateTime(id));
+                batch.draw(frame, drawX, drawY, EnemySystem.SIZE, EnemySystem.SIZE);
+            }
         }
     }
 
     /**
-     * Checks if the player has collected the statue/key in the current level.
-     *
-     * @return true if the statue has been collected, false otherwise
+     * Collects the entities whose sprites can be within a margin of the view into nearby.
+     * Entities are hashed by their bottom-left corner, so the area is widened by their size.
      */
-    public boolean isStatueCollected() {
-        return statueCollected;
+    private void queryAroundView(SpatialHash hash, ViewBounds view, float size, float margin) {
+        hash.query(view.getLeft() - margin - size, view.getBottom() - margin - size,
+                view.getRight() + margin, view.getTop() + margin, nearby);
     }
 
     /**
      * Cleans up resources used by the MapLoader.
-     * Disposes of all sprite sheets to prevent memory leaks.
+     * Disposes of the chunk cache to prevent memory leaks.
+     * The sprite sheets belong to the game's shared SpriteAtlas and are not disposed here.
      */
     public void dispose() {
-        spriteSheet1.dispose();
-        spriteSheet2.dispose();
-        spriteSheet3.dispose();
+        if (world != null) {
+            world.removeListener(this);
+        }
+        if (chunkCache != null) {
+            chunkCache.dispose();
+        }
     }
 }
\ No newline at end of file
@@ -5,13 +5,16 @@
 import com.badlogic.gdx.Screen;
 import com.badlogic.gdx.audio.Music;
 import com.badlogic.gdx.audio.Sound;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.Animation;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.profiling.GLProfiler;
 import com.badlogic.gdx.scenes.scene2d.ui.Skin;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
 import games.spooky.gdx.nativefilechooser.NativeFileChooser;
+import java.io.IOException;
+import java.io.Reader;
 import java.util.Stack;
 
 /**
@@ -39,6 +42,21 @@ public class MazeRunnerGame extends Game {
     // UI Skin
     private Skin skin;
 
+    // All playable levels, read once at startup
+    private LevelManifest levelManifest;
+
+    // Reads levels, in the background while menus and cutscenes are shown
+    private LevelLoader levelLoader;
+
+    // Packed sprite sheets shared by every screen
+    private SpriteAtlas spriteAtlas;
+
+    // Enemy and shadow animations, built once and shared by every level
+    private AnimationCache animationCache;
+
+    // Counts draw calls and texture binds for the render stats overlay
+    private GLProfiler profiler;
+
     // Character animation downwards
     // Add these private fields to MazeRunnerGame class
     private Animation<TextureRegion> characterUpAnimation;
@@ -77,6 +95,11 @@ public MazeRunnerGame(NativeFileChooser fileChooser) {
     public void create() {
         spriteBatch = new SpriteBatch(); // Create SpriteBatch
         skin = new Skin(Gdx.files.internal("craft/craftacular-ui.json")); // Load UI skin
+        spriteAtlas = new SpriteAtlas(); // Load packed sprite sheets
+        animationCache = new AnimationCache(spriteAtlas);
+        levelManifest = loadLevelManifest(); // Load the list of levels
+        levelLoader = new LevelLoader();
+        profiler = new GLProfiler(Gdx.graphics);
         this.loadCharacterAnimation(); // Load character animation
 
         //pushScreen(new Level1());
@@ -177,11 +200,11 @@ public void goToSettings() {
     }
 
     /**
-     * Loads the character animation from the character.png file.
+     * Loads the character animation from the mobs sheet in the sprite atlas.
      */
     private void loadCharacterAnimation() {
-        // Load the sprite sheet
-        Texture walkSheet = new Texture(Gdx.files.internal("mobs.png"));
+        // Get the sprite sheet
+        TextureRegion walkSheet = spriteAtlas.getRegion("mobs");
 
         // Frame dimensions
         int frameWidth = 16;
@@ -216,6 +239,20 @@ private void loadCharacterAnimation() {
         characterUpAnimation = new Animation<>(0.1f, upFrames);
     }
 
+    /**
+     * Reads the level manifest that lists every playable level.
+     *
+     * @return The level manifest
+     * @throws GdxRuntimeException if the manifest cannot be read
+     */
+    private LevelManifest loadLevelManifest() {
+        try (Reader reader = Gdx.files.internal(LevelManifest.FILE).reader()) {
+            return LevelManifest.read(reader);
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Error loading " + LevelManifest.FILE, e);
+        }
+    }
+
     // Add getter and setter for gameScreen
     public GameScreen getGameScreen() {
         return gameScreen;
@@ -281,6 +318,12 @@ public void dispose() {
         if (skin != null) {
             skin.dispose(); // Dispose the skin
         }
+        if (spriteAtlas != null) {
+            spriteAtlas.dispose(); // Dispose the sprite atlas
+        }
+        if (levelLoader != null) {
+            levelLoader.dispose(); // Stop the level loading thread
+        }
         if (backgroundMusic != null) {
             backgroundMusic.stop(); // Stop the music if it's playing
             backgroundMusic.dispose(); // Dispose the music resource
@@ -302,6 +345,26 @@ public Skin getSkin() {
         return skin;
     }
 
+    public LevelManifest getLevelManifest() {
+        return levelManifest;
+    }
+
+    public LevelLoader getLevelLoader() {
+        return levelLoader;
+    }
+
+    public SpriteAtlas getSpriteAtlas() {
+        return spriteAtlas;
+    }
+
+    public AnimationCache getAnimationCache() {
+        return animationCache;
+    }
+
+    public GLProfiler getProfiler() {
+        return profiler;
+    }
+
     public Animation<TextureRegion> getCharacterUpAnimation() {
         return characterUpAnimation;
     }
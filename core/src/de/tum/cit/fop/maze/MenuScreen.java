@@ -31,6 +31,7 @@ public class MenuScreen extends BaseScreen {
 
     public MenuScreen(MazeRunnerGame game) {
         super(game);
+        game.getLevelLoader().preload(game.getLevelManifest().getLevel(1)); // Parse level 1 before START is pressed
 
         // Create a table for layout
         Table table = new Table();
@@ -47,10 +48,7 @@ public MenuScreen(MazeRunnerGame game) {
         goToGameButton.addListener(new ChangeListener() {
             @Override
             public void changed(ChangeEvent event, Actor actor) {
-                GameScreen gameScreen = new GameScreen(game); // No need for the level number parameter, the default level is 1
-                game.setGameScreen(gameScreen);
-                game.pushScreen(gameScreen); // First push the game screen
-                game.pushScreen(new CutsceneScreen(game, gameScreen)); // Then push cutscene on top
+                game.pushScreen(new CutsceneScreen(game, 1)); // The cutscene starts level 1 when it ends
             }
         });
 
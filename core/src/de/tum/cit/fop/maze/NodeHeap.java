@@ -0,0 +1,88 @@
+package de.tum.cit.fop.maze;
+
+import java.util.Arrays;
+
+/**
+ * The NodeHeap class is the open set of the path searches: a binary min-heap of int node ids
+ * ordered by int priorities, stored in two parallel primitive arrays.
+ * <p>
+ * It has no decrease-key operation. A search pushes a node again when it finds a cheaper way
+ * to it and skips the outdated entry when it is popped, which keeps the heap allocation-free
+ * once it has grown to the size a map needs.
+ */
+final class NodeHeap {
+    private int[] nodes;
+    private int[] priorities;
+    private int size;
+
+    /**
+     * Creates an empty heap.
+     *
+     * @param capacity The number of entries to make room for up front
+     */
+    NodeHeap(int capacity) {
+        nodes = new int[Math.max(capacity, 16)];
+        priorities = new int[nodes.length];
+    }
+
+    /**
+     * Adds a node.
+     *
+     * @param node     The node id
+     * @param priority The priority, lower values are popped first
+     */
+    void push(int node, int priority) {
+        if (size == nodes.length) {
+            nodes = Arrays.copyOf(nodes, size * 2);
+            priorities = Arrays.copyOf(priorities, size * 2);
+        }
+
+        // Sift up
+        int i = size++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (priorities[parent] <= priority) break;
+            nodes[i] = nodes[parent];
+            priorities[i] = priorities[parent];
+            i = parent;
+        }
+        nodes[i] = node;
+        priorities[i] = priority;
+    }
+
+    /**
+     * Removes the node with the lowest priority.
+     *
+     * @return The node id
+     */
+    int pop() {
+        int result = nodes[0];
+        size--;
+        if (size == 0) return result;
+
+        // Sift the last entry down from the root
+        int node = nodes[size];
+        int priority = priorities[size];
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) break;
+            if (child + 1 < size && priorities[child + 1] < priorities[child]) child++;
+            if (priorities[child] >= priority) break;
+            nodes[i] = nodes[child];
+            priorities[i] = priorities[child];
+            i = child;
+        }
+        nodes[i] = node;
+        priorities[i] = priority;
+        return result;
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+}
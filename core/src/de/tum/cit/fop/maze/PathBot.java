@@ -0,0 +1,357 @@
+package de.tum.cit.fop.maze;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.IntArray;
+import java.util.Arrays;
+
+/**
+ * The PathBot is the reference Bot: it walks to the statue and then to the nearest exit along the
+ * shortest way through the tile grid, sprinting all the time, and goes around enemies and shadows.
+ * <p>
+ * Both ways are DistanceMaps built when the attempt starts. Traps are avoided unless there is no way
+ * around them. Each step the bot searches the tiles within WINDOW of the player, leaving out the
+ * tiles close to an enemy and the tiles next to a shadow, for the tile from which the rest of the
+ * way is shortest, and steers the player's centre towards the centre of the first tile on the way
+ * there. If that leaves no way forward, the tiles next to shadows are allowed again, and then the
+ * tiles near enemies, so the bot never stops for good.
+ * <p>
+ * While the shortest way is clear the bot simply follows it. Once a tile on it is avoided, the bot
+ * plans a way around to a tile of the shortest way behind the avoided ones and keeps to it until
+ * it is back, it leaves the way, or one of its tiles is avoided for the same reason, so it does not
+ * swing between two ways of nearly the same length. If an enemy is next to the player or its next
+ * tile, the bot may also back away from the goal, but only for PATIENCE steps without getting
+ * closer, so an enemy guarding the only way cannot hold it forever.
+ * <p>
+ * A hurt bot turns aside for a heart within HEART_REACH steps, or LAST_LIFE_HEART_REACH on its last
+ * life, and keeps heading for it until it is healed or the heart is gone.
+ * <p>
+ * An enemy hurts the player whose centre comes within EnemySystem.TOUCH_DISTANCE of the enemy's
+ * bottom-left corner. Tiles are avoided by the distance of their centre to that corner: a little
+ * more than the touch distance for an idle enemy, since walking through tile centres passes it
+ * safely, and CHASE_CLEARANCE for a chasing enemy, which closes in on the player.
+ */
+public class PathBot implements Bot {
+    private static final float DEAD_ZONE = 3; // Pixels from a tile centre that count as on it, more than half a sprint step
+    private static final int WINDOW = 8; // Tiles searched around the player in each direction
+    private static final int SIDE = 2 * WINDOW + 1;
+    private static final float IDLE_CLEARANCE = EnemySystem.TOUCH_DISTANCE + 8;
+    private static final float CHASE_CLEARANCE = EnemySystem.TOUCH_DISTANCE + 2.5f * GameWorld.TILE_SIZE;
+    private static final int DETOUR = 2 * WINDOW; // Extra steps a way around is allowed to take
+    private static final int PATIENCE = 5 * 60; // Steps without getting closer to the goal before the bot stops backing away
+    private static final int HEART_REACH = 10; // Steps the bot goes for a heart when it is hurt
+    private static final int LAST_LIFE_HEART_REACH = 40; // Steps it goes for one on its last life
+
+    // Why a tile of the window is avoided
+    private static final byte NEAR_ENEMY = 1;
+    private static final byte NEAR_SHADOW = 2;
+
+    private DistanceMap statueDistances; // Steps to the statue, null if the level has none
+    private DistanceMap exitDistances; // Steps to the nearest exit once the statue is held
+    private DistanceMap heartDistances; // Steps to the nearest heart, null if there is none
+    private int heartChanges; // Change count of the grid when the hearts were last looked up
+    private boolean seekingHeart; // Whether the bot heads for the nearest heart instead of its goal
+
+    // The search window, indexed by (y - originY) * SIDE + (x - originX); reused every step
+    private final byte[] avoided = new byte[SIDE * SIDE];
+    private final int[] steps = new int[SIDE * SIDE];
+    private final int[] parents = new int[SIDE * SIDE]; // Window index of the tile each tile was reached from
+    private final int[] queue = new int[SIDE * SIDE];
+    private final boolean[] rejoins = new boolean[SIDE * SIDE]; // Tiles of the way behind the first avoided one
+    private final IntArray nearby = new IntArray();
+    private int originX;
+    private int originY;
+
+    // The way around avoided tiles the bot is following, as row-major grid indices
+    private final IntArray detour = new IntArray();
+    private int detourNext; // Index in detour of the tile to head for
+    private int detourStart; // The tile the way around was planned from
+    private DistanceMap detourDistances; // The way it leads back to
+    private int detourReasons; // The reasons its tiles were avoided for
+    private int width; // Grid width in tiles
+
+    private DistanceMap goal; // The distances followed in the last step
+    private int closest; // The fewest steps to the goal reached since it was set
+    private int stepsWithoutProgress; // Steps since closest last went down
+
+    @Override
+    public void start(GameWorld world) {
+        TileGrid grid = world.getGrid();
+        width = grid.getWidth();
+        detour.clear();
+        goal = null;
+        IntArray statues = new IntArray();
+        for (int y = 0; y < grid.getHeight(); y++) {
+            for (int x = 0; x < grid.getWidth(); x++) {
+                if ((grid.classify(x, y) & TileGrid.KEY) != 0) statues.add(y * grid.getWidth() + x);
+            }
+        }
+
+        // Exits stay closed until the statue is collected, so the way to the statue avoids them
+        Vector2 start = world.getPlayerPosition();
+        statueDistances = statues.isEmpty() ? null
+                : reachable(grid, TileGrid.SOLID | TileGrid.EXIT, statues.toArray(), start);
+        exitDistances = reachable(grid, TileGrid.SOLID, world.getLevel().getExits(), start);
+        heartDistances = null;
+        seekingHeart = false;
+        findHearts(grid);
+    }
+
+    /**
+     * Points the heart distances at the hearts left on the grid. Hearts disappear when they are used,
+     * so this runs again whenever the grid has changed.
+     */
+    private void findHearts(TileGrid grid) {
+        heartChanges = grid.getChangeCount();
+        IntArray hearts = new IntArray();
+        for (int y = 0; y < grid.getHeight(); y++) {
+            for (int x = 0; x < grid.getWidth(); x++) {
+                if ((grid.classify(x, y) & TileGrid.HEALS) != 0) hearts.add(y * grid.getWidth() + x);
+            }
+        }
+        if (hearts.isEmpty()) {
+            heartDistances = null;
+        } else if (heartDistances == null) {
+            heartDistances = new DistanceMap(grid, TileGrid.SOLID | TileGrid.EXIT | TileGrid.DAMAGING, hearts.toArray());
+        } else {
+            heartDistances.setSources(hearts.toArray());
+        }
+    }
+
+    /**
+     * Builds a distance map that avoids traps, or one that walks over them if the player could not
+     * reach a source otherwise. Walls and traps never change during an attempt, so the map stays valid.
+     */
+    private static DistanceMap reachable(TileGrid grid, int blockingFlags, int[] sources, Vector2 start) {
+        DistanceMap safe = new DistanceMap(grid, blockingFlags | TileGrid.DAMAGING, sources);
+        if (safe.getDistance(tileOf(start.x), tileOf(start.y)) >= 0) return safe;
+        return new DistanceMap(grid, blockingFlags, sources);
+    }
+
+    @Override
+    public void decide(GameWorld world, PlayerInput input) {
+        DistanceMap distances = world.isStatueCollected() || statueDistances == null ? exitDistances : statueDistances;
+
+        Vector2 position = world.getPlayerPosition();
+        int tileX = tileOf(position.x);
+        int tileY = tileOf(position.y);
+
+        // A hurt bot goes for a heart close by, or farther away on its last life, and keeps going until it is healed
+        if (world.getGrid().getChangeCount() != heartChanges) findHearts(world.getGrid());
+        if (heartDistances == null || world.getLives() == GameWorld.MAX_LIVES
+                || heartDistances.getDistance(tileX, tileY) < 0) {
+            seekingHeart = false;
+        } else if (heartDistances.getDistance(tileX, tileY) <= (world.getLives() == 1 ? LAST_LIFE_HEART_REACH : HEART_REACH)) {
+            seekingHeart = true;
+        }
+        if (seekingHeart) distances = heartDistances;
+        trackProgress(distances, tileX, tileY);
+        markAvoided(world, tileX, tileY);
+
+        // Keep to a chosen way around while it leads somewhere and stays clear, so the bot does not waver
+        int next = followDetour(distances, tileX, tileY);
+
+        // Relax what is avoided until there is a way forward; without any, head for the centre of this tile
+        if (next < 0) next = search(world.getGrid(), distances, NEAR_ENEMY | NEAR_SHADOW);
+        if (next < 0) next = search(world.getGrid(), distances, NEAR_ENEMY);
+        if (next < 0) next = search(world.getGrid(), distances, 0);
+        if (next < 0) next = WINDOW * SIDE + WINDOW;
+
+        float dx = (originX + next % SIDE + 0.5f) * GameWorld.TILE_SIZE - position.x;
+        float dy = (originY + next / SIDE + 0.5f) * GameWorld.TILE_SIZE - position.y;
+
+        input.left = dx < -DEAD_ZONE;
+        input.right = dx > DEAD_ZONE;
+        input.down = dy < -DEAD_ZONE;
+        input.up = dy > DEAD_ZONE;
+        input.sprint = true;
+    }
+
+    /**
+     * Counts the steps since the player was last closer to the goal than ever before.
+     */
+    private void trackProgress(DistanceMap distances, int tileX, int tileY) {
+        int distance = distances.getDistance(tileX, tileY);
+        if (distances != goal || distance >= 0 && distance < closest) {
+            goal = distances;
+            closest = distance < 0 ? Integer.MAX_VALUE : distance;
+            stepsWithoutProgress = 0;
+        } else {
+            stepsWithoutProgress++;
+        }
+    }
+
+    /**
+     * Advances along the current way around and drops it once it is walked, the player left it, the
+     * goal changed, or one of its remaining tiles is now avoided for a reason it was planned around.
+     *
+     * @return The window index of the next tile of the way around, or -1 if there is none
+     */
+    private int followDetour(DistanceMap distances, int tileX, int tileY) {
+        if (detour.isEmpty()) return -1;
+        int tile = tileY * width + tileX;
+        if (detourNext < detour.size && detour.get(detourNext) == tile) detourNext++;
+        boolean onDetour = detourNext > 0 && detour.get(detourNext - 1) == tile
+                || detourNext == 0 && detourStart == tile;
+        if (distances != detourDistances || detourNext >= detour.size || !onDetour) {
+            detour.clear();
+            return -1;
+        }
+        for (int i = detourNext; i < detour.size; i++) {
+            int x = detour.get(i) % width - originX;
+            int y = detour.get(i) / width - originY;
+            if (x < 0 || x >= SIDE || y < 0 || y >= SIDE) break;
+            if ((avoided[y * SIDE + x] & detourReasons) != 0) {
+                detour.clear();
+                return -1;
+            }
+        }
+        int next = detour.get(detourNext);
+        return (next / width - originY) * SIDE + next % width - originX;
+    }
+
+    /**
+     * Centres the window on the player's tile and marks the tiles close to enemies and next to shadows.
+     */
+    private void markAvoided(GameWorld world, int tileX, int tileY) {
+        originX = tileX - WINDOW;
+        originY = tileY - WINDOW;
+        Arrays.fill(avoided, (byte) 0);
+        float minX = originX * GameWorld.TILE_SIZE;
+        float minY = originY * GameWorld.TILE_SIZE;
+        float maxX = (originX + SIDE) * GameWorld.TILE_SIZE;
+        float maxY = (originY + SIDE) * GameWorld.TILE_SIZE;
+
+        EnemySystem enemies = world.getEnemies();
+        nearby.clear();
+        enemies.getHash().query(minX - CHASE_CLEARANCE, minY - CHASE_CLEARANCE,
+                maxX + CHASE_CLEARANCE, maxY + CHASE_CLEARANCE, nearby);
+        for (int i = 0; i < nearby.size; i++) {
+            int id = nearby.get(i);
+            markAround(enemies.getX(id), enemies.getY(id),
+                    enemies.isChasing(id) ? CHASE_CLEARANCE : IDLE_CLEARANCE, NEAR_ENEMY);
+        }
+
+        // Shadows are hashed by their bottom-left corner; the tiles next to the one under their centre are avoided
+        nearby.clear();
+        world.getShadowHash().query(minX - 2 * GameWorld.TILE_SIZE, minY - 2 * GameWorld.TILE_SIZE, maxX, maxY, nearby);
+        for (int i = 0; i < nearby.size; i++) {
+            Vector2 shadow = world.getShadows().get(nearby.get(i)).getPosition();
+            int shadowX = tileOf(shadow.x + Shadow.SIZE / 2) - originX;
+            int shadowY = tileOf(shadow.y + Shadow.SIZE / 2) - originY;
+            for (int y = Math.max(0, shadowY - 1); y <= Math.min(SIDE - 1, shadowY + 1); y++) {
+                for (int x = Math.max(0, shadowX - 1); x <= Math.min(SIDE - 1, shadowX + 1); x++) {
+                    avoided[y * SIDE + x] |= NEAR_SHADOW;
+                }
+            }
+        }
+    }
+
+    /**
+     * Marks the window tiles whose centre lies closer than a clearance to a point.
+     */
+    private void markAround(float pointX, float pointY, float clearance, byte reason) {
+        int firstX = Math.max(0, tileOf(pointX - clearance) - originX);
+        int lastX = Math.min(SIDE - 1, tileOf(pointX + clearance) - originX);
+        int firstY = Math.max(0, tileOf(pointY - clearance) - originY);
+        int lastY = Math.min(SIDE - 1, tileOf(pointY + clearance) - originY);
+        for (int y = firstY; y <= lastY; y++) {
+            float dy = (originY + y + 0.5f) * GameWorld.TILE_SIZE - pointY;
+            for (int x = firstX; x <= lastX; x++) {
+                float dx = (originX + x + 0.5f) * GameWorld.TILE_SIZE - pointX;
+                if (dx * dx + dy * dy < clearance * clearance) avoided[y * SIDE + x] |= reason;
+            }
+        }
+    }
+
+    /**
+     * Finds the next tile on the way through the window, leaving out the tiles marked with any of the
+     * given reasons. The bot keeps to the way on the distance map while none of its tiles in the
+     * window is left out. Otherwise a breadth-first search from the player's tile looks for the way
+     * back onto it behind the left out tiles, and takes the one with the fewest steps in total, as
+     * long as that is at most DETOUR steps more than the way on the distance map.
+     *
+     * @return The window index of the next tile, or -1 if there is no way around
+     */
+    private int search(TileGrid grid, DistanceMap distances, int avoidedReasons) {
+        int startIndex = WINDOW * SIDE + WINDOW;
+        int startDistance = distances.getDistance(originX + WINDOW, originY + WINDOW);
+        if (startDistance <= 0) return startIndex;
+
+        // Follow the way through the window and mark its tiles behind the first left out one
+        Arrays.fill(rejoins, false);
+        int next = -1;
+        boolean blocked = false;
+        int x = WINDOW;
+        int y = WINDOW;
+        while (distances.getDistance(originX + x, originY + y) > 0) {
+            int nx = x + distances.getDirectionX(originX + x, originY + y);
+            int ny = y + distances.getDirectionY(originX + x, originY + y);
+            if (nx < 0 || nx >= SIDE || ny < 0 || ny >= SIDE) break;
+            x = nx;
+            y = ny;
+            int index = y * SIDE + x;
+            if (next < 0) next = index;
+            if ((avoided[index] & avoidedReasons) != 0) {
+                blocked = true;
+            } else if (blocked) {
+                rejoins[index] = true;
+            }
+        }
+        if (!blocked) return next;
+
+        int blockingFlags = distances.getBlockingFlags();
+        // Backing away from an enemy is allowed only while the bot keeps getting closer to the goal now and then
+        boolean retreat = stepsWithoutProgress < PATIENCE
+                && ((avoided[startIndex] & NEAR_ENEMY) != 0 || next >= 0 && (avoided[next] & NEAR_ENEMY) != 0);
+        Arrays.fill(steps, -1);
+        steps[startIndex] = 0;
+        queue[0] = startIndex;
+        int head = 0;
+        int tail = 1;
+        int best = -1;
+        int bestCost = startDistance + DETOUR + 1;
+        while (head < tail) {
+            int index = queue[head++];
+            x = index % SIDE;
+            y = index / SIDE;
+            for (int direction = 0; direction < 4; direction++) {
+                int nx = x + (direction == 0 ? 1 : direction == 1 ? -1 : 0);
+                int ny = y + (direction == 2 ? 1 : direction == 3 ? -1 : 0);
+                if (nx < 0 || nx >= SIDE || ny < 0 || ny >= SIDE) continue;
+                int neighbour = ny * SIDE + nx;
+                if (steps[neighbour] >= 0 || (avoided[neighbour] & avoidedReasons) != 0) continue;
+
+                // Sources count as walkable, as on the distance map
+                int distance = distances.getDistance(originX + nx, originY + ny);
+                if (distance < 0 || distance > 0 && (grid.classify(originX + nx, originY + ny) & blockingFlags) != 0) continue;
+
+                steps[neighbour] = steps[index] + 1;
+                parents[neighbour] = index;
+                queue[tail++] = neighbour;
+                // A tile on the border of the window only counts if it is closer to the source than the player
+                boolean border = (nx == 0 || nx == SIDE - 1 || ny == 0 || ny == SIDE - 1) && (distance < startDistance || retreat);
+                if ((rejoins[neighbour] || border || distance == 0) && steps[neighbour] + distance < bestCost) {
+                    bestCost = steps[neighbour] + distance;
+                    best = neighbour;
+                }
+            }
+        }
+        if (best < 0) return -1;
+
+        // Remember the way to the goal, from the first step on
+        detour.clear();
+        for (int index = best; index != startIndex; index = parents[index]) {
+            detour.add((originY + index / SIDE) * width + originX + index % SIDE);
+        }
+        detour.reverse();
+        detourNext = 0;
+        detourStart = (originY + WINDOW) * width + originX + WINDOW;
+        detourDistances = distances;
+        detourReasons = avoidedReasons;
+        return (detour.first() / width - originY) * SIDE + detour.first() % width - originX;
+    }
+
+    private static int tileOf(float coordinate) {
+        return (int) (coordinate / GameWorld.TILE_SIZE);
+    }
+}
@@ -0,0 +1,421 @@
+package de.tum.cit.fop.maze;
+
+import com.badlogic.gdx.utils.IntArray;
+import java.util.Arrays;
+
+/**
+ * The Pathfinder class finds paths between two tiles of a TileGrid with hierarchical A* (HPA*).
+ * <p>
+ * The map is cut into square clusters. Where two neighbouring clusters share walkable tiles along
+ * their border, transition tiles are placed on both sides; these are the nodes of a small abstract
+ * graph. Inside each cluster the distances between its transition tiles are precomputed with a
+ * breadth-first search. A query connects the start and goal to the transition tiles of their clusters,
+ * runs A* on the abstract graph, which has a few nodes per cluster instead of one per tile, and then
+ * refines each abstract step into tiles with a search restricted to a single cluster.
+ * Paths are near-optimal: they may be a few tiles longer than the shortest path.
+ * <p>
+ * All search state lives in arrays that are allocated once and reused; a stamp per search marks
+ * which entries belong to the current query, so nothing has to be cleared between queries.
+ * When a tile changes, only the clusters it can affect are rebuilt, right before the next query.
+ */
+public class Pathfinder {
+    public static final int CLUSTER_SIZE = 10; // Cluster width and height in tiles
+    private static final int WIDE_ENTRANCE = 6; // Entrances at least this wide get a transition at each end
+
+    private static final int[] DX = {1, -1, 0, 0};
+    private static final int[] DY = {0, 0, 1, -1};
+
+    private final TileGrid grid;
+    private final int blockingFlags;
+    private final int width;
+    private final int height;
+    private final int clustersX;
+    private final int clustersY;
+    private final Cluster[] clusters;
+    private final boolean[] dirty;
+    private final IntArray dirtyClusters = new IntArray();
+
+    // Abstract search state, indexed by tile; an entry is only valid if its stamp equals the current search
+    private final int[] stamps;
+    private final int[] costs;
+    private final int[] cameFrom;
+    private final boolean[] closed;
+    private final NodeHeap open = new NodeHeap(256);
+    private int search;
+
+    // Cluster-local breadth-first search state, indexed by position inside the cluster
+    private final int[] localDistances = new int[CLUSTER_SIZE * CLUSTER_SIZE];
+    private final int[] localParents = new int[CLUSTER_SIZE * CLUSTER_SIZE];
+    private final int[] localQueue = new int[CLUSTER_SIZE * CLUSTER_SIZE];
+
+    // Distances from the query's start and goal to the transition tiles of their clusters
+    private int[] startDistances = new int[16];
+    private int[] goalDistances = new int[16];
+    private final IntArray abstractPath = new IntArray();
+
+    /**
+     * A square part of the map with its transition tiles and the distances between them.
+     */
+    private static final class Cluster {
+        final int x;
+        final int y;
+        final int width;
+        final int height;
+        final IntArray nodes = new IntArray(); // Tile indices of the transition tiles
+        final IntArray links = new IntArray(); // Pairs of (local node, tile index in the neighbouring cluster)
+        int[] distances = new int[0]; // nodes.size * nodes.size, -1 if not connected inside the cluster
+
+        Cluster(int x, int y, int width, int height) {
+            this.x = x;
+            this.y = y;
+            this.width = width;
+            this.height = height;
+        }
+    }
+
+    /**
+     * Builds the abstract graph for a grid.
+     *
+     * @param grid          The tile grid to search
+     * @param blockingFlags Tile flags that make a tile impassable, e.g. TileGrid.BLOCKS_ENEMY
+     */
+    public Pathfinder(TileGrid grid, int blockingFlags) {
+        this.grid = grid;
+        this.blockingFlags = blockingFlags;
+        this.width = grid.getWidth();
+        this.height = grid.getHeight();
+        this.clustersX = (width + CLUSTER_SIZE - 1) / CLUSTER_SIZE;
+        this.clustersY = (height + CLUSTER_SIZE - 1) / CLUSTER_SIZE;
+
+        int tileCount = width * height;
+        stamps = new int[tileCount];
+        costs = new int[tileCount];
+        cameFrom = new int[tileCount];
+        closed = new boolean[tileCount];
+
+        clusters = new Cluster[clustersX * clustersY];
+        dirty = new boolean[clusters.length];
+        for (int cy = 0; cy < clustersY; cy++) {
+            for (int cx = 0; cx < clustersX; cx++) {
+                int x = cx * CLUSTER_SIZE;
+                int y = cy * CLUSTER_SIZE;
+                clusters[cy * clustersX + cx] = new Cluster(x, y,
+                        Math.min(CLUSTER_SIZE, width - x), Math.min(CLUSTER_SIZE, height - y));
+            }
+        }
+        for (Cluster cluster : clusters) {
+            buildCluster(cluster);
+        }
+    }
+
+    /**
+     * Marks the clusters a changed tile can affect for rebuilding before the next query.
+     * A tile on a cluster border also changes the transitions of the neighbouring cluster.
+     *
+     * @param x The column of the changed tile
+     * @param y The row of the changed tile
+     */
+    public void tileChanged(int x, int y) {
+        if (!grid.isInside(x, y)) return;
+        int cx = x / CLUSTER_SIZE;
+        int cy = y / CLUSTER_SIZE;
+        markDirty(cx, cy);
+
+        Cluster cluster = clusters[cy * clustersX + cx];
+        if (x == cluster.x) markDirty(cx - 1, cy);
+        if (x == cluster.x + cluster.width - 1) markDirty(cx + 1, cy);
+        if (y == cluster.y) markDirty(cx, cy - 1);
+        if (y == cluster.y + cluster.height - 1) markDirty(cx, cy + 1);
+    }
+
+    private void markDirty(int cx, int cy) {
+        if (cx < 0 || cx >= clustersX || cy < 0 || cy >= clustersY) return;
+        int index = cy * clustersX + cx;
+        if (!dirty[index]) {
+            dirty[index] = true;
+            dirtyClusters.add(index);
+        }
+    }
+
+    /**
+     * Finds a path between two tiles.
+     *
+     * @param startX The start column
+     * @param startY The start row
+     * @param goalX  The goal column
+     * @param goalY  The goal row
+     * @param path   Receives the tile indices (y * width + x) from start to goal, both included;
+     *               it is cleared first and left empty if there is no path
+     * @return true if a path was found
+     */
+    public boolean findPath(int startX, int startY, int goalX, int goalY, IntArray path) {
+        path.clear();
+        if (!isWalkable(startX, startY) || !isWalkable(goalX, goalY)) return false;
+        rebuildDirtyClusters();
+
+        int start = startY * width + startX;
+        int goal = goalY * width + goalX;
+        if (start == goal) {
+            path.add(start);
+            return true;
+        }
+
+        Cluster startCluster = clusterOf(startX, startY);
+        Cluster goalCluster = clusterOf(goalX, goalY);
+
+        // A path that stays inside one cluster needs no abstract search
+        if (startCluster == goalCluster) {
+            searchCluster(startCluster, start);
+            if (localDistances[localIndex(startCluster, goal)] >= 0) {
+                path.add(start);
+                appendClusterPath(startCluster, start, goal, path);
+                return true;
+            }
+        }
+
+        // Connect the goal and the start to the transition tiles of their clusters
+        goalDistances = distancesToNodes(goalCluster, goal, goalDistances);
+        startDistances = distancesToNodes(startCluster, start, startDistances);
+
+        if (!searchAbstract(start, goal, startCluster, goalCluster)) return false;
+
+        // Refine every abstract step into tiles
+        path.add(start);
+        for (int i = 1; i < abstractPath.size; i++) {
+            int from = abstractPath.get(i - 1);
+            int to = abstractPath.get(i);
+            Cluster cluster = clusterOf(from % width, from / width);
+            if (cluster == clusterOf(to % width, to / width)) {
+                searchCluster(cluster, from);
+                appendClusterPath(cluster, from, to, path);
+            } else {
+                path.add(to); // Neighbouring transition tiles across a border
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Runs A* on the abstract graph and stores the node sequence from start to goal in abstractPath.
+     */
+    private boolean searchAbstract(int start, int goal, Cluster startCluster, Cluster goalCluster) {
+        search++;
+        open.clear();
+        abstractPath.clear();
+        int goalX = goal % width;
+        int goalY = goal / width;
+
+        visit(start, 0, -1, goalX, goalY);
+        while (!open.isEmpty()) {
+            int node = open.pop();
+            if (closed[node]) continue; // Outdated entry
+            if (node == goal) {
+                for (int n = goal; n != -1; n = cameFrom[n]) {
+                    abstractPath.add(n);
+                }
+                abstractPath.reverse();
+                return true;
+            }
+            closed[node] = true;
+            int cost = costs[node];
+
+            if (node == start) {
+                IntArray nodes = startCluster.nodes;
+                for (int i = 0; i < nodes.size; i++) {
+                    if (startDistances[i] >= 0) {
+                        visit(nodes.get(i), cost + startDistances[i], node, goalX, goalY);
+                    }
+                }
+            }
+
+            Cluster cluster = clusterOf(node % width, node / width);
+            int local = cluster.nodes.indexOf(node);
+            if (local < 0) continue; // The start is not necessarily a transition tile
+
+            int count = cluster.nodes.size;
+            for (int i = 0; i < count; i++) {
+                int distance = cluster.distances[local * count + i];
+                if (i != local && distance >= 0) {
+                    visit(cluster.nodes.get(i), cost + distance, node, goalX, goalY);
+                }
+            }
+            for (int i = 0; i < cluster.links.size; i += 2) {
+                if (cluster.links.get(i) == local) {
+                    visit(cluster.links.get(i + 1), cost + 1, node, goalX, goalY);
+                }
+            }
+            if (cluster == goalCluster && goalDistances[local] >= 0) {
+                visit(goal, cost + goalDistances[local], node, goalX, goalY);
+            }
+        }
+        return false;
+    }
+
+    private void visit(int node, int cost, int from, int goalX, int goalY) {
+        if (stamps[node] == search) {
+            if (closed[node] || cost >= costs[node]) return;
+        } else {
+            stamps[node] = search;
+            closed[node] = false;
+        }
+        costs[node] = cost;
+        cameFrom[node] = from;
+        // Manhattan distance never overestimates on a 4-connected grid
+        int heuristic = Math.abs(node % width - goalX) + Math.abs(node / width - goalY);
+        open.push(node, cost + heuristic);
+    }
+
+    /**
+     * Collects the distances from a tile to every transition tile of its cluster.
+     *
+     * @return The distances by local node index, -1 where a transition tile cannot be reached
+     */
+    private int[] distancesToNodes(Cluster cluster, int tile, int[] distances) {
+        if (distances.length < cluster.nodes.size) {
+            distances = new int[cluster.nodes.size * 2];
+        }
+        searchCluster(cluster, tile);
+        for (int i = 0; i < cluster.nodes.size; i++) {
+            distances[i] = localDistances[localIndex(cluster, cluster.nodes.get(i))];
+        }
+        return distances;
+    }
+
+    private void rebuildDirtyClusters() {
+        for (int i = 0; i < dirtyClusters.size; i++) {
+            int index = dirtyClusters.get(i);
+            dirty[index] = false;
+            buildCluster(clusters[index]);
+        }
+        dirtyClusters.clear();
+    }
+
+    /**
+     * Finds the transition tiles on all four borders of a cluster and the distances between them.
+     */
+    private void buildCluster(Cluster cluster) {
+        cluster.nodes.clear();
+        cluster.links.clear();
+        int right = cluster.x + cluster.width - 1;
+        int top = cluster.y + cluster.height - 1;
+
+        if (cluster.x > 0) addEntrances(cluster, cluster.x, cluster.y, 0, 1, -1, 0, cluster.height);
+        if (right < width - 1) addEntrances(cluster, right, cluster.y, 0, 1, 1, 0, cluster.height);
+        if (cluster.y > 0) addEntrances(cluster, cluster.x, cluster.y, 1, 0, 0, -1, cluster.width);
+        if (top < height - 1) addEntrances(cluster, cluster.x, top, 1, 0, 0, 1, cluster.width);
+
+        int count = cluster.nodes.size;
+        if (cluster.distances.length < count * count) {
+            cluster.distances = new int[count * count];
+        }
+        for (int i = 0; i < count; i++) {
+            searchCluster(cluster, cluster.nodes.get(i));
+            for (int j = 0; j < count; j++) {
+                cluster.distances[i * count + j] = localDistances[localIndex(cluster, cluster.nodes.get(j))];
+            }
+        }
+    }
+
+    /**
+     * Walks along one border of a cluster and adds transitions for every run of tiles that are
+     * walkable on both sides. Both clusters scan a shared border in the same order, so they agree
+     * on where the transitions are.
+     *
+     * @param x       The first border tile inside the cluster
+     * @param y       The first border tile inside the cluster
+     * @param stepX   The direction along the border
+     * @param stepY   The direction along the border
+     * @param outX    The direction to the neighbouring cluster
+     * @param outY    The direction to the neighbouring cluster
+     * @param length  The length of the border in tiles
+     */
+    private void addEntrances(Cluster cluster, int x, int y, int stepX, int stepY, int outX, int outY, int length) {
+        int runStart = -1;
+        for (int i = 0; i <= length; i++) {
+            int insideX = x + i * stepX;
+            int insideY = y + i * stepY;
+            boolean open = i < length && isWalkable(insideX, insideY) && isWalkable(insideX + outX, insideY + outY);
+            if (open && runStart < 0) {
+                runStart = i;
+            } else if (!open && runStart >= 0) {
+                int runEnd = i - 1;
+                if (runEnd - runStart + 1 >= WIDE_ENTRANCE) {
+                    addTransition(cluster, x + runStart * stepX, y + runStart * stepY, outX, outY);
+                    addTransition(cluster, x + runEnd * stepX, y + runEnd * stepY, outX, outY);
+                } else {
+                    int middle = (runStart + runEnd) / 2;
+                    addTransition(cluster, x + middle * stepX, y + middle * stepY, outX, outY);
+                }
+                runStart = -1;
+            }
+        }
+    }
+
+    private void addTransition(Cluster cluster, int x, int y, int outX, int outY) {
+        int tile = y * width + x;
+        int local = cluster.nodes.indexOf(tile);
+        if (local < 0) {
+            local = cluster.nodes.size;
+            cluster.nodes.add(tile); // A corner tile can be a transition on two borders
+        }
+        cluster.links.add(local, (y + outY) * width + x + outX);
+    }
+
+    /**
+     * Runs a breadth-first search from a tile that never leaves its cluster.
+     * Fills localDistances (-1 for unreached tiles) and localParents.
+     */
+    private void searchCluster(Cluster cluster, int tile) {
+        int cells = cluster.width * cluster.height;
+        Arrays.fill(localDistances, 0, cells, -1);
+
+        int first = localIndex(cluster, tile);
+        localDistances[first] = 0;
+        localParents[first] = -1;
+        localQueue[0] = first;
+        int head = 0;
+        int tail = 1;
+        while (head < tail) {
+            int current = localQueue[head++];
+            int lx = current % cluster.width;
+            int ly = current / cluster.width;
+            for (int d = 0; d < DX.length; d++) {
+                int nx = lx + DX[d];
+                int ny = ly + DY[d];
+                if (nx < 0 || nx >= cluster.width || ny < 0 || ny >= cluster.height) continue;
+                int next = ny * cluster.width + nx;
+                if (localDistances[next] >= 0 || !isWalkable(cluster.x + nx, cluster.y + ny)) continue;
+                localDistances[next] = localDistances[current] + 1;
+                localParents[next] = current;
+                localQueue[tail++] = next;
+            }
+        }
+    }
+
+    /**
+     * Appends the tiles after from up to and including to, following the parents of the last
+     * searchCluster call, which must have started at from.
+     */
+    private void appendClusterPath(Cluster cluster, int from, int to, IntArray path) {
+        int first = path.size;
+        for (int local = localIndex(cluster, to); local != localIndex(cluster, from); local = localParents[local]) {
+            path.add((cluster.y + local / cluster.width) * width + cluster.x + local % cluster.width);
+        }
+        // The tiles were added from the end backwards
+        for (int i = first, j = path.size - 1; i < j; i++, j--) {
+            path.swap(i, j);
+        }
+    }
+
+    private int localIndex(Cluster cluster, int tile) {
+        return (tile / width - cluster.y) * cluster.width + tile % width - cluster.x;
+    }
+
+    private Cluster clusterOf(int x, int y) {
+        return clusters[(y / CLUSTER_SIZE) * clustersX + x / CLUSTER_SIZE];
+    }
+
+    private boolean isWalkable(int x, int y) {
+        return (grid.classify(x, y) & blockingFlags) == 0;
+    }
+}
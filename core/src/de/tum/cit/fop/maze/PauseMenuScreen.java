@@ -50,10 +50,8 @@ public void changed(ChangeEvent event, Actor actor) {
         restartButton.addListener(new ChangeListener() {
             @Override
             public void changed(ChangeEvent event, Actor actor) {
-                GameScreen gameScreen = new GameScreen(game, game.getGameScreen().getCurrentLevel());
-                game.setGameScreen(gameScreen);
-                game.pushScreen(new CutsceneScreen(game, gameScreen));
-                game.pushScreen(gameScreen);
+                game.getGameScreen().restart(); // Roll the level back instead of loading it again
+                game.popScreen();
             }
         });
 
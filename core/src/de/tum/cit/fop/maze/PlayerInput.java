@@ -0,0 +1,61 @@
+package de.tum.cit.fop.maze;
+
+/**
+ * The PlayerInput class holds the controls of the player for one simulation step.
+ * The GameScreen fills it from the keyboard before stepping the GameWorld; a headless simulation
+ * or a Replay sets the fields directly. The controls pack into a bitmask for recording.
+ */
+public class PlayerInput {
+    // Bits of the packed controls
+    public static final int LEFT = 1;
+    public static final int RIGHT = 1 << 1;
+    public static final int UP = 1 << 2;
+    public static final int DOWN = 1 << 3;
+    public static final int SPRINT = 1 << 4;
+    public static final int DAMAGE = 1 << 5;
+    public static final int HEAL = 1 << 6;
+
+    public boolean left;
+    public boolean right;
+    public boolean up;
+    public boolean down;
+    public boolean sprint;
+    public boolean damage; // Debug key, the player loses a life in the step
+    public boolean heal; // Debug key, the player gains a life in the step
+
+    /**
+     * Releases all controls.
+     */
+    public void clear() {
+        left = false;
+        right = false;
+        up = false;
+        down = false;
+        sprint = false;
+        damage = false;
+        heal = false;
+    }
+
+    /**
+     * @return The controls packed into the bits of this class
+     */
+    public int getBits() {
+        return (left ? LEFT : 0) | (right ? RIGHT : 0) | (up ? UP : 0) | (down ? DOWN : 0)
+                | (sprint ? SPRINT : 0) | (damage ? DAMAGE : 0) | (heal ? HEAL : 0);
+    }
+
+    /**
+     * Sets all controls from packed bits.
+     *
+     * @param bits The controls as returned by {@link #getBits()}
+     */
+    public void setBits(int bits) {
+        left = (bits & LEFT) != 0;
+        right = (bits & RIGHT) != 0;
+        up = (bits & UP) != 0;
+        down = (bits & DOWN) != 0;
+        sprint = (bits & SPRINT) != 0;
+        damage = (bits & DAMAGE) != 0;
+        heal = (bits & HEAL) != 0;
+    }
+}
@@ -0,0 +1,113 @@
+package de.tum.cit.fop.maze;
+
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * The Replay class plays an InputRecording back on a GameWorld, one recorded step at a time.
+ * <p>
+ * The world is put into deterministic mode and reset, so it plays out exactly as it did while being
+ * recorded. A screen calls {@link #step()} once per simulation step to watch the replay at normal
+ * speed; {@link #runToEnd()} plays it as fast as the world can be stepped, e.g. on a server.
+ * <p>
+ * A snapshot of the world is kept every SNAPSHOT_INTERVAL steps as the replay passes them.
+ * {@link #seek(int)} restores the nearest snapshot before the target step and simulates the rest,
+ * so seeking never replays more than SNAPSHOT_INTERVAL steps beyond what has already been played.
+ */
+public class Replay {
+    static final int SNAPSHOT_INTERVAL = 600; // Steps between snapshots, 10 seconds at 60 steps per second
+
+    private final GameWorld world;
+    private final InputRecording recording;
+    private final PlayerInput input = new PlayerInput();
+    private final Array<GameWorld.Snapshot> snapshots = new Array<>(); // Snapshot i is taken before step i * SNAPSHOT_INTERVAL
+    private int step; // The next step to play
+
+    /**
+     * Prepares a world to replay a recording and rewinds it to the start of the level.
+     *
+     * @param world     The world of the recorded level, created with the recording's seed
+     * @param recording The recording to play back
+     * @throws IllegalArgumentException if the world was created with a different seed
+     */
+    public Replay(GameWorld world, InputRecording recording) {
+        if (world.getSeed() != recording.getSeed()) {
+            throw new IllegalArgumentException("World seed " + world.getSeed()
+                    + " does not match the recording's seed " + recording.getSeed());
+        }
+        this.world = world;
+        this.recording = recording;
+        world.setDeterministic(true);
+        world.reset();
+        snapshots.add(world.snapshot());
+    }
+
+    /**
+     * Plays the next recorded step.
+     *
+     * @return false if the recording has ended and nothing was played
+     */
+    public boolean step() {
+        if (isFinished()) return false;
+        recording.read(step, input);
+        world.step(input, recording.getStepLength());
+        step++;
+        if (step % SNAPSHOT_INTERVAL == 0 && step / SNAPSHOT_INTERVAL == snapshots.size) {
+            snapshots.add(world.snapshot());
+        }
+        return true;
+    }
+
+    /**
+     * Plays the rest of the recording without waiting between steps.
+     *
+     * @return The number of steps played
+     */
+    public int runToEnd() {
+        int played = 0;
+        while (step()) {
+            played++;
+        }
+        return played;
+    }
+
+    /**
+     * Moves the replay to a step, restoring the closest earlier snapshot if the target lies behind
+     * the current step or beyond the next snapshot.
+     *
+     * @param target The step to continue from, clamped to the recording
+     */
+    public void seek(int target) {
+        target = Math.max(0, Math.min(target, recording.getStepCount()));
+        int snapshot = Math.min(target / SNAPSHOT_INTERVAL, snapshots.size - 1);
+        int snapshotStep = snapshot * SNAPSHOT_INTERVAL;
+        if (target < step || step < snapshotStep) {
+            world.restore(snapshots.get(snapshot));
+            step = snapshotStep;
+        }
+        while (step < target) {
+            step();
+        }
+    }
+
+    /**
+     * @return true once every recorded step has been played
+     */
+    public boolean isFinished() {
+        return step >= recording.getStepCount();
+    }
+
+    public GameWorld getWorld() {
+        return world;
+    }
+
+    public InputRecording getRecording() {
+        return recording;
+    }
+
+    /**
+     * @return The next step to play, which is also the number of steps played since the start
+     */
+    public int getStep() {
+        return step;
+    }
+}
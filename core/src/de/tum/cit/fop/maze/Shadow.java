@@ -1,30 +1,21 @@
 package de.tum.cit.fop.maze;
 
-import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.graphics.Texture;
-import com.badlogic.gdx.graphics.g2d.Animation;
-import com.badlogic.gdx.graphics.g2d.Sprite;
-import com.badlogic.gdx.graphics.g2d.SpriteBatch;
-import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.Vector2;
-import com.badlogic.gdx.utils.Array;
 
 /**
  * The Shadow class represents the third type of obstacles that reacts to the player's position
  * by changing its animation state. It has two states: sleeping and staring, which are triggered
  * based on the player's relative position to the shadow. If the Player is underneath the Shadow
- * and "looks" at it directly, it will be slowed down
+ * and "looks" at it directly, it will be slowed down.
+ * The animations are shared by all shadows and drawn by the MapLoader; a shadow only keeps its own
+ * animation clock.
  */
 public class Shadow {
 
     private Vector2 position;
-    private Sprite sprite;
-    private Animation<TextureRegion> sleepAnimation;
-    private Animation<TextureRegion> stareAnimation;
     private float stateTime;
-    private static final int TILE_SIZE = 60;
-    private static final float ANIMATION_SPEED = 0.4f;
-    private static final float RANGE = 300f;
+    static final float SIZE = 60; // Drawn width and height in pixels
+    static final float RANGE = 300f;
     public boolean isStaring = false;
 
     /**
@@ -32,55 +23,10 @@ public class Shadow {
      *
      * @param positionX The initial X-coordinate of the shadow in pixels
      * @param positionY The initial Y-coordinate of the shadow in pixels
-     * @param shadowTexture The texture used for rendering the shadow sprite
      */
-    public Shadow(float positionX, float positionY, Texture shadowTexture) {
+    public Shadow(float positionX, float positionY) {
         this.position = new Vector2(positionX, positionY);
-
-        sprite = new Sprite(shadowTexture);
-        sprite.setSize(TILE_SIZE, TILE_SIZE);
-
         this.stateTime = 0.2f;
-
-    }
-
-    /**
-     * Initialises the shadow´s animations using sprite sheets.
-     * Sets up both sleeping and staring animation states.
-     */
-    public void createShadowEnemy() {
-        Texture spriteSheet = new Texture(Gdx.files.internal("shadow.png"));
-
-        int frameWidth = 15;
-        int frameHeight = 16;
-
-        Array<TextureRegion> sleepFrames = new Array<>();
-        Array<TextureRegion> stareFrames = new Array<>();
-
-
-        sleepFrames.add(new TextureRegion(spriteSheet, 0 * frameWidth, 0 * frameHeight, frameWidth, frameHeight));
-        sleepFrames.add(new TextureRegion(spriteSheet, 1 * frameWidth, 0 * frameHeight, frameWidth, frameHeight));
-
-        stareFrames.add(new TextureRegion(spriteSheet, 2 * frameWidth, 0 * frameHeight, frameWidth, frameHeight));
-        stareFrames.add(new TextureRegion(spriteSheet, 3 * frameWidth, 0 * frameHeight, frameWidth, frameHeight));
-        stareFrames.add(new TextureRegion(spriteSheet, 4 * frameWidth, 0 * frameHeight, frameWidth, frameHeight));
-
-        sleepAnimation = new Animation<>(ANIMATION_SPEED, sleepFrames);
-        stareAnimation = new Animation<>(ANIMATION_SPEED, stareFrames);
-    }
-
-    /**
-     * Renders the shadow on the screen using the appropriate animation frame
-     * based on its current state (sleeping or staring).
-     *
-     * @param spriteBatch The SpriteBatch used for rendering graphics
-     */
-    public void render(SpriteBatch spriteBatch) {
-        Animation<TextureRegion> currentAnimation = isStaring? stareAnimation : sleepAnimation;
-        TextureRegion currentFrame = currentAnimation.getKeyFrame(stateTime, true);
-        sprite.setRegion(currentFrame);
-        sprite.setPosition(position.x, position.y);
-        sprite.draw(spriteBatch);
     }
 
     /**
@@ -100,17 +46,41 @@ public boolean playerAboveShadow(Vector2 position,Vector2 playerPosition) {
     /**
      * Updates the shadow's state based on the player's position and time elapsed.
      * Changes between sleeping and staring states depending on the player's location.
+     * A shadow only stares if no wall stands between it and the player.
      *
      * @param deltaTime The time elapsed since the last update in seconds
      * @param playerPosition The current position of the player
+     * @param lineOfSight The world's line of sight service
      */
-    public void update(float deltaTime, Vector2 playerPosition) {
+    public void update(float deltaTime, Vector2 playerPosition, LineOfSight lineOfSight) {
         stateTime += deltaTime;
         if (playerAboveShadow(position,playerPosition)) {
-            isStaring = true;
+            isStaring = lineOfSight.canSee(
+                    (int) ((position.x + SIZE / 2) / GameWorld.TILE_SIZE),
+                    (int) ((position.y + SIZE / 2) / GameWorld.TILE_SIZE),
+                    (int) (playerPosition.x / GameWorld.TILE_SIZE),
+                    (int) (playerPosition.y / GameWorld.TILE_SIZE));
         } else {
             isStaring = false;
         }
     }
 
-}
\ No newline at end of file
+    /**
+     * Puts the shadow back into a saved state, for GameWorld snapshots.
+     *
+     * @param stateTime The animation clock
+     * @param staring   Whether the shadow stares at the player
+     */
+    void restore(float stateTime, boolean staring) {
+        this.stateTime = stateTime;
+        this.isStaring = staring;
+    }
+
+    public Vector2 getPosition() {
+        return position;
+    }
+
+    public float getStateTime() {
+        return stateTime;
+    }
+}
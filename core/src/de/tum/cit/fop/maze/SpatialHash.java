@@ -0,0 +1,162 @@
+package de.tum.cit.fop.maze;
+
+import com.badlogic.gdx.utils.IntArray;
+import java.util.Arrays;
+
+/**
+ * The SpatialHash class sorts entities into square buckets of a uniform grid over the map,
+ * so proximity checks only look at the entities in the few buckets around a point.
+ * <p>
+ * Entities are identified by small int ids (their index in the owner's list). Each bucket is an
+ * intrusive doubly linked list threaded through primitive arrays, so inserting, moving and
+ * removing an entity never allocates and moving within the same bucket costs a single comparison.
+ * Positions outside the map are kept in the nearest edge bucket.
+ */
+public class SpatialHash {
+    private static final int NONE = -1;
+
+    private final float cellSize;
+    private final int columns;
+    private final int rows;
+    private final int[] heads; // First entity per bucket
+    private int[] next;
+    private int[] previous;
+    private int[] cells; // Bucket of each entity, NONE if not inserted
+
+    /**
+     * Creates an empty spatial hash covering a map.
+     *
+     * @param cellSize    The bucket width and height in pixels
+     * @param worldWidth  The map width in pixels
+     * @param worldHeight The map height in pixels
+     * @param capacity    The expected number of entities
+     */
+    public SpatialHash(float cellSize, float worldWidth, float worldHeight, int capacity) {
+        if (cellSize <= 0) {
+            throw new IllegalArgumentException("Cell size must be positive: " + cellSize);
+        }
+        this.cellSize = cellSize;
+        this.columns = Math.max(1, (int) Math.ceil(worldWidth / cellSize));
+        this.rows = Math.max(1, (int) Math.ceil(worldHeight / cellSize));
+        this.heads = new int[columns * rows];
+        Arrays.fill(heads, NONE);
+
+        capacity = Math.max(capacity, 16);
+        next = new int[capacity];
+        previous = new int[capacity];
+        cells = new int[capacity];
+        Arrays.fill(cells, NONE);
+    }
+
+    /**
+     * Adds an entity, or moves it if it is already in the hash.
+     *
+     * @param id The entity id, 0 or greater
+     * @param x  The x-coordinate of the entity in pixels
+     * @param y  The y-coordinate of the entity in pixels
+     */
+    public void insert(int id, float x, float y) {
+        if (id < 0) {
+            throw new IllegalArgumentException("Invalid entity id: " + id);
+        }
+        if (id >= cells.length) {
+            int capacity = Math.max(id + 1, cells.length * 2);
+            next = Arrays.copyOf(next, capacity);
+            previous = Arrays.copyOf(previous, capacity);
+            int oldLength = cells.length;
+            cells = Arrays.copyOf(cells, capacity);
+            Arrays.fill(cells, oldLength, capacity, NONE);
+        }
+        move(id, x, y);
+    }
+
+    /**
+     * Updates the bucket of an entity after it moved. Does nothing if it stayed in its bucket.
+     *
+     * @param id The entity id
+     * @param x  The new x-coordinate in pixels
+     * @param y  The new y-coordinate in pixels
+     */
+    public void move(int id, float x, float y) {
+        int cell = cellAt(x, y);
+        if (cells[id] == cell) return;
+        unlink(id);
+
+        // Push to the front of the new bucket
+        cells[id] = cell;
+        previous[id] = NONE;
+        next[id] = heads[cell];
+        if (heads[cell] != NONE) {
+            previous[heads[cell]] = id;
+        }
+        heads[cell] = id;
+    }
+
+    /**
+     * Removes an entity. Does nothing if it is not in the hash.
+     *
+     * @param id The entity id
+     */
+    public void remove(int id) {
+        if (id < 0 || id >= cells.length) return;
+        unlink(id);
+    }
+
+    /**
+     * Removes all entities.
+     */
+    public void clear() {
+        Arrays.fill(heads, NONE);
+        Arrays.fill(cells, NONE);
+    }
+
+    /**
+     * Collects the ids of all entities in the buckets that overlap a rectangle.
+     * The result can contain entities slightly outside the rectangle; callers do the exact check.
+     *
+     * @param minX   The left edge in pixels
+     * @param minY   The bottom edge in pixels
+     * @param maxX   The right edge in pixels
+     * @param maxY   The top edge in pixels
+     * @param result Receives the ids; it is not cleared first
+     */
+    public void query(float minX, float minY, float maxX, float maxY, IntArray result) {
+        int firstColumn = column(minX);
+        int lastColumn = column(maxX);
+        int firstRow = row(minY);
+        int lastRow = row(maxY);
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int column = firstColumn; column <= lastColumn; column++) {
+                for (int id = heads[row * columns + column]; id != NONE; id = next[id]) {
+                    result.add(id);
+                }
+            }
+        }
+    }
+
+    private void unlink(int id) {
+        int cell = cells[id];
+        if (cell == NONE) return;
+        if (previous[id] != NONE) {
+            next[previous[id]] = next[id];
+        } else {
+            heads[cell] = next[id];
+        }
+        if (next[id] != NONE) {
+            previous[next[id]] = previous[id];
+        }
+        cells[id] = NONE;
+    }
+
+    private int cellAt(float x, float y) {
+        return row(y) * columns + column(x);
+    }
+
+    private int column(float x) {
+        return Math.min(columns - 1, Math.max(0, (int) Math.floor(x / cellSize)));
+    }
+
+    private int row(float y) {
+        return Math.min(rows - 1, Math.max(0, (int) Math.floor(y / cellSize)));
+    }
+}
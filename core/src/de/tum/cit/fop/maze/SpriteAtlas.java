@@ -0,0 +1,60 @@
+package de.tum.cit.fop.maze;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+
+/**
+ * The SpriteAtlas class gives access to every game sprite sheet through one packed texture.
+ * The sheets under assets-raw/sprites are packed into sprites.atlas by the core module's
+ * packTextures Gradle task, so tiles, mobs, items and arrows can all be drawn without
+ * the SpriteBatch having to switch textures.
+ */
+public class SpriteAtlas {
+    public static final String ATLAS_FILE = "sprites.atlas";
+
+    private final TextureAtlas atlas;
+
+    /**
+     * Loads the packed sprite atlas.
+     */
+    public SpriteAtlas() {
+        atlas = new TextureAtlas(Gdx.files.internal(ATLAS_FILE));
+    }
+
+    /**
+     * Returns a whole sprite sheet by name.
+     *
+     * @param sheetName The name of the packed sheet, i.e. the original file name without ".png"
+     * @return The region covering the whole sheet
+     * @throws IllegalArgumentException if no sheet with that name was packed
+     */
+    public TextureRegion getRegion(String sheetName) {
+        TextureRegion region = atlas.findRegion(sheetName);
+        if (region == null) {
+            throw new IllegalArgumentException("Unknown sprite sheet: " + sheetName);
+        }
+        return region;
+    }
+
+    /**
+     * Returns a part of a sprite sheet, using the same pixel coordinates as the original sheet.
+     *
+     * @param sheetName The name of the packed sheet
+     * @param x         The x-coordinate inside the sheet in pixels
+     * @param y         The y-coordinate inside the sheet in pixels, measured from the top
+     * @param width     The width of the region in pixels
+     * @param height    The height of the region in pixels
+     * @return A new region referencing the atlas texture
+     */
+    public TextureRegion getRegion(String sheetName, int x, int y, int width, int height) {
+        return new TextureRegion(getRegion(sheetName), x, y, width, height);
+    }
+
+    /**
+     * Disposes of the atlas page textures.
+     */
+    public void dispose() {
+        atlas.dispose();
+    }
+}
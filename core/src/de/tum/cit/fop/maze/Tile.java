@@ -0,0 +1,24 @@
+package de.tum.cit.fop.maze;
+
+/**
+ * The Tile class lists the tile types used in the level files and stored in the TileGrid.
+ * The values match the numbers on the right-hand side of the "x,y=type" entries in maps/*.properties.
+ */
+public final class Tile {
+    public static final byte EMPTY = -1; // Floor only
+    public static final byte WALL = 0;
+    public static final byte ENTRY = 1;
+    public static final byte EXIT = 2;
+    public static final byte TRAP = 3;
+    public static final byte ENEMY = 4; // Enemy spawn point
+    public static final byte STATUE = 5;
+    public static final byte HEART = 6;
+    public static final byte BUFF = 7;
+    public static final byte SHADOW = 8; // Shadow spawn point
+    public static final byte TOMBSTONE = 9;
+
+    public static final int TYPE_COUNT = 10; // Number of non-empty tile types
+
+    private Tile() {
+    }
+}
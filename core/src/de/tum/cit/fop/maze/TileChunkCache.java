@@ -0,0 +1,217 @@
+package de.tum.cit.fop.maze;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.g2d.SpriteCache;
+
+/**
+ * The TileChunkCache class bakes the static floor and wall layers of a map into SpriteCaches,
+ * split into square chunks of CHUNK_SIZE x CHUNK_SIZE tiles.
+ * Every frame only the chunks that overlap the camera are drawn, and a chunk is only rebuilt
+ * after one of its tiles has been changed (for example when an item is collected).
+ * <p>
+ * The chunks are grouped into pages of PAGE_SIZE x PAGE_SIZE chunks, and every page has its own
+ * SpriteCache. A page is sized from the sprites its tiles need when it is built, plus CHUNK_SLACK
+ * sprites per chunk, instead of for the worst case of every tile. SpriteCache can only redefine a
+ * chunk with at most as many sprites as it first had, so a chunk that grew, for example when a
+ * reset puts the collected items back, rebuilds its own page and leaves the rest of the map alone.
+ */
+public class TileChunkCache {
+    public static final int CHUNK_SIZE = 16; // Tiles per chunk side
+    private static final int PAGE_SIZE = 4; // Chunks per page side
+    private static final int CHUNK_SLACK = 16; // Sprites a page reserves per chunk for objects added later
+
+    private final MapLoader mapLoader;
+    private final int tileSize;
+    private final int mapWidth;
+    private final int mapHeight;
+    private final int chunksX;
+    private final int chunksY;
+    private final int pagesX;
+    private final int pagesY;
+    private final SpriteCache[] pageCaches; // One SpriteCache per page, row-major
+    private final int[] pageCapacity; // Number of sprites each page's SpriteCache can hold
+    private final boolean[] pageDirty; // Pages waiting to be rebuilt because a chunk grew
+    private final int[] cacheIds; // Id of each chunk in its page's SpriteCache, row-major
+    private final int[] chunkCapacity; // Number of sprites each chunk held when its page was built
+    private final boolean[] dirty; // Chunks waiting to be rebuilt
+
+    /**
+     * Creates the chunk cache for the given map and bakes every chunk once.
+     *
+     * @param mapLoader The map whose static tiles are cached
+     * @param mapWidth  The map width in tiles
+     * @param mapHeight The map height in tiles
+     * @param tileSize  The size of a tile in world units
+     */
+    public TileChunkCache(MapLoader mapLoader, int mapWidth, int mapHeight, int tileSize) {
+        this.mapLoader = mapLoader;
+        this.mapWidth = mapWidth;
+        this.mapHeight = mapHeight;
+        this.tileSize = tileSize;
+        this.chunksX = (mapWidth + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        this.chunksY = (mapHeight + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        this.pagesX = (chunksX + PAGE_SIZE - 1) / PAGE_SIZE;
+        this.pagesY = (chunksY + PAGE_SIZE - 1) / PAGE_SIZE;
+        this.pageCaches = new SpriteCache[pagesX * pagesY];
+        this.pageCapacity = new int[pagesX * pagesY];
+        this.pageDirty = new boolean[pagesX * pagesY];
+        this.cacheIds = new int[chunksX * chunksY];
+        this.chunkCapacity = new int[chunksX * chunksY];
+        this.dirty = new boolean[chunksX * chunksY];
+
+        for (int page = 0; page < pageCaches.length; page++) {
+            buildPage(page);
+        }
+    }
+
+    /**
+     * Marks the chunk containing the given tile for rebuilding before the next frame.
+     *
+     * @param tileX The x-coordinate of the changed tile
+     * @param tileY The y-coordinate of the changed tile
+     */
+    public void invalidate(int tileX, int tileY) {
+        if (tileX < 0 || tileX >= mapWidth || tileY < 0 || tileY >= mapHeight) return;
+        dirty[(tileY / CHUNK_SIZE) * chunksX + tileX / CHUNK_SIZE] = true;
+    }
+
+    /**
+     * Draws all chunks overlapping the view.
+     * Must be called while no SpriteBatch is drawing.
+     *
+     * @param camera The camera providing the projection matrix
+     * @param view   The visible world rectangle that decides which chunks are drawn
+     */
+    public void render(OrthographicCamera camera, ViewBounds view) {
+        rebuildDirtyChunks();
+
+        float chunkWorldSize = CHUNK_SIZE * tileSize;
+        int firstX = view.firstColumn(chunkWorldSize);
+        int firstY = view.firstRow(chunkWorldSize);
+        int lastX = view.lastColumn(chunkWorldSize, chunksX);
+        int lastY = view.lastRow(chunkWorldSize, chunksY);
+        if (firstX > lastX || firstY > lastY) return;
+
+        // SpriteCache does not manage blending itself
+        Gdx.gl.glEnable(GL20.GL_BLEND);
+        Gdx.gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+
+        // Draw page by page, each page's visible chunks between one begin and end
+        for (int py = firstY / PAGE_SIZE; py <= lastY / PAGE_SIZE; py++) {
+            for (int px = firstX / PAGE_SIZE; px <= lastX / PAGE_SIZE; px++) {
+                SpriteCache spriteCache = pageCaches[py * pagesX + px];
+                spriteCache.setProjectionMatrix(camera.combined);
+                spriteCache.begin();
+                int endY = Math.min(lastY, (py + 1) * PAGE_SIZE - 1);
+                int endX = Math.min(lastX, (px + 1) * PAGE_SIZE - 1);
+                for (int cy = Math.max(firstY, py * PAGE_SIZE); cy <= endY; cy++) {
+                    for (int cx = Math.max(firstX, px * PAGE_SIZE); cx <= endX; cx++) {
+                        spriteCache.draw(cacheIds[cy * chunksX + cx]);
+                    }
+                }
+                spriteCache.end();
+            }
+        }
+    }
+
+    /**
+     * Bakes every chunk of a page from scratch. The page's SpriteCache is kept if the counted
+     * sprites still fit, and otherwise replaced by one sized for the new count.
+     */
+    private void buildPage(int page) {
+        int px = page % pagesX;
+        int py = page / pagesX;
+        int endX = Math.min(chunksX, (px + 1) * PAGE_SIZE);
+        int endY = Math.min(chunksY, (py + 1) * PAGE_SIZE);
+
+        int sprites = 0;
+        for (int cy = py * PAGE_SIZE; cy < endY; cy++) {
+            for (int cx = px * PAGE_SIZE; cx < endX; cx++) {
+                sprites += countChunkTiles(cx, cy) + CHUNK_SLACK;
+            }
+        }
+
+        SpriteCache spriteCache = pageCaches[page];
+        if (spriteCache == null || sprites > pageCapacity[page]) {
+            if (spriteCache != null) spriteCache.dispose();
+            spriteCache = new SpriteCache(sprites, false);
+            pageCaches[page] = spriteCache;
+            pageCapacity[page] = sprites;
+        } else {
+            spriteCache.clear();
+        }
+
+        for (int cy = py * PAGE_SIZE; cy < endY; cy++) {
+            for (int cx = px * PAGE_SIZE; cx < endX; cx++) {
+                int chunk = cy * chunksX + cx;
+                spriteCache.beginCache();
+                chunkCapacity[chunk] = addChunkTiles(spriteCache, cx, cy);
+                cacheIds[chunk] = spriteCache.endCache();
+                dirty[chunk] = false;
+            }
+        }
+        pageDirty[page] = false;
+    }
+
+    /**
+     * Rebuilds the chunks that were invalidated since the last frame.
+     * A chunk that still fits is redefined in place; a chunk that grew rebuilds its page.
+     */
+    private void rebuildDirtyChunks() {
+        for (int chunk = 0; chunk < dirty.length; chunk++) {
+            if (!dirty[chunk]) continue;
+
+            int cx = chunk % chunksX;
+            int cy = chunk / chunksX;
+            int page = (cy / PAGE_SIZE) * pagesX + cx / PAGE_SIZE;
+            if (countChunkTiles(cx, cy) > chunkCapacity[chunk]) {
+                pageDirty[page] = true;
+                continue;
+            }
+
+            SpriteCache spriteCache = pageCaches[page];
+            spriteCache.beginCache(cacheIds[chunk]);
+            addChunkTiles(spriteCache, cx, cy);
+            spriteCache.endCache();
+            dirty[chunk] = false;
+        }
+        for (int page = 0; page < pageDirty.length; page++) {
+            if (pageDirty[page]) buildPage(page);
+        }
+    }
+
+    private int addChunkTiles(SpriteCache spriteCache, int cx, int cy) {
+        int count = 0;
+        int endX = Math.min(mapWidth, (cx + 1) * CHUNK_SIZE);
+        int endY = Math.min(mapHeight, (cy + 1) * CHUNK_SIZE);
+        for (int x = cx * CHUNK_SIZE; x < endX; x++) {
+            for (int y = cy * CHUNK_SIZE; y < endY; y++) {
+                count += mapLoader.cacheStaticTile(spriteCache, x, y);
+            }
+        }
+        return count;
+    }
+
+    private int countChunkTiles(int cx, int cy) {
+        int count = 0;
+        int endX = Math.min(mapWidth, (cx + 1) * CHUNK_SIZE);
+        int endY = Math.min(mapHeight, (cy + 1) * CHUNK_SIZE);
+        for (int x = cx * CHUNK_SIZE; x < endX; x++) {
+            for (int y = cy * CHUNK_SIZE; y < endY; y++) {
+                count += mapLoader.countStaticSprites(x, y);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Releases the GPU buffers held by the page SpriteCaches.
+     */
+    public void dispose() {
+        for (SpriteCache spriteCache : pageCaches) {
+            if (spriteCache != null) spriteCache.dispose();
+        }
+    }
+}
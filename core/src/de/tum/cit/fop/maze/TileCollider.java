@@ -0,0 +1,138 @@
+package de.tum.cit.fop.maze;
+
+/**
+ * The TileCollider class moves axis-aligned boxes through a TileGrid without letting them enter
+ * blocking tiles. It is shared by the player and every enemy.
+ * <p>
+ * A move is swept one axis at a time, horizontal first, so a box sliding along a wall keeps the
+ * part of its move that is parallel to the wall. On each axis only the tile columns or rows the
+ * leading edge enters are read, and only the rows or columns the box spans; for a box no larger than
+ * a tile moving less than a tile that is at most two reads per axis.
+ * <p>
+ * The collider holds no state of its own, so it can be used from several threads at once as long as
+ * each passes its own Result.
+ */
+public class TileCollider {
+    private final TileGrid grid;
+    private final float tileSize;
+
+    /**
+     * The outcome of a move: the resolved position and the normals of the walls that were hit.
+     * Reuse one instance per caller instead of allocating per move.
+     */
+    public static final class Result {
+        public float x; // Resolved bottom-left corner
+        public float y;
+        public int normalX; // 1 if a wall on the left stopped the move, -1 for one on the right, 0 if none
+        public int normalY; // 1 if a wall below stopped the move, -1 for one above, 0 if none
+
+        public boolean hitWall() {
+            return normalX != 0 || normalY != 0;
+        }
+    }
+
+    /**
+     * Creates a collider for a grid.
+     *
+     * @param grid     The tile grid to collide with
+     * @param tileSize The width and height of a tile in pixels
+     */
+    public TileCollider(TileGrid grid, float tileSize) {
+        this.grid = grid;
+        this.tileSize = tileSize;
+    }
+
+    /**
+     * Moves a box as far as it can go towards the target position.
+     *
+     * @param x             The x-coordinate of the box's bottom-left corner in pixels
+     * @param y             The y-coordinate of the box's bottom-left corner in pixels
+     * @param width         The box width in pixels
+     * @param height        The box height in pixels
+     * @param dx            The horizontal move in pixels
+     * @param dy            The vertical move in pixels
+     * @param blockingFlags The tile flags the box cannot enter, see TileGrid
+     * @param result        Receives the resolved position and contact normals
+     */
+    public void move(float x, float y, float width, float height, float dx, float dy, int blockingFlags, Result result) {
+        result.normalX = 0;
+        result.normalY = 0;
+        result.x = sweepX(x, y, width, height, dx, blockingFlags, result);
+        result.y = sweepY(result.x, y, width, height, dy, blockingFlags, result);
+    }
+
+    private float sweepX(float x, float y, float width, float height, float dx, int blockingFlags, Result result) {
+        if (dx == 0) return x;
+        int firstRow = tile(y);
+        int lastRow = lastTile(y + height);
+        if (dx > 0) {
+            int last = lastTile(x + width + dx);
+            for (int column = lastTile(x + width) + 1; column <= last; column++) {
+                if (blocksColumn(column, firstRow, lastRow, blockingFlags)) {
+                    result.normalX = -1;
+                    return column * tileSize - width;
+                }
+            }
+        } else {
+            int last = tile(x + dx);
+            for (int column = tile(x) - 1; column >= last; column--) {
+                if (blocksColumn(column, firstRow, lastRow, blockingFlags)) {
+                    result.normalX = 1;
+                    return (column + 1) * tileSize;
+                }
+            }
+        }
+        return x + dx;
+    }
+
+    private float sweepY(float x, float y, float width, float height, float dy, int blockingFlags, Result result) {
+        if (dy == 0) return y;
+        int firstColumn = tile(x);
+        int lastColumn = lastTile(x + width);
+        if (dy > 0) {
+            int last = lastTile(y + height + dy);
+            for (int row = lastTile(y + height) + 1; row <= last; row++) {
+                if (blocksRow(row, firstColumn, lastColumn, blockingFlags)) {
+                    result.normalY = -1;
+                    return row * tileSize - height;
+                }
+            }
+        } else {
+            int last = tile(y + dy);
+            for (int row = tile(y) - 1; row >= last; row--) {
+                if (blocksRow(row, firstColumn, lastColumn, blockingFlags)) {
+                    result.normalY = 1;
+                    return (row + 1) * tileSize;
+                }
+            }
+        }
+        return y + dy;
+    }
+
+    private boolean blocksColumn(int column, int firstRow, int lastRow, int blockingFlags) {
+        for (int row = firstRow; row <= lastRow; row++) {
+            if ((grid.classify(column, row) & blockingFlags) != 0) return true;
+        }
+        return false;
+    }
+
+    private boolean blocksRow(int row, int firstColumn, int lastColumn, int blockingFlags) {
+        for (int column = firstColumn; column <= lastColumn; column++) {
+            if ((grid.classify(column, row) & blockingFlags) != 0) return true;
+        }
+        return false;
+    }
+
+    private int tile(float coordinate) {
+        return (int) Math.floor(coordinate / tileSize);
+    }
+
+    /**
+     * Returns the last tile a box reaches whose far edge lies at the given coordinate. An edge lying
+     * exactly on a tile border does not reach into the next tile. No epsilon is subtracted, because
+     * far from the origin a small epsilon is lost to float rounding.
+     */
+    private int lastTile(float edge) {
+        return (int) Math.ceil(edge / tileSize) - 1;
+    }
+}
@@ -0,0 +1,205 @@
+package de.tum.cit.fop.maze;
+
+import java.util.Arrays;
+
+/**
+ * The TileGrid class stores the object layer of a map as a flat, row-major byte array.
+ * Every tile type maps to a precomputed set of flag bits, so a single lookup answers
+ * whether a tile is solid, damaging, a pickup, an exit or blocks enemies.
+ * <p>
+ * A grid created from a level's tiles shares that array until the first tile is changed, so starting
+ * a cached level again costs nothing; collecting the first item copies the tiles.
+ * Every change is recorded in a small log of (tile index, previous type) pairs, so the grid can be
+ * rolled back to any earlier point, e.g. the start of the level, in time proportional to the number
+ * of changes since then instead of the map size.
+ */
+public class TileGrid {
+    // Tile flags
+    public static final int SOLID = 1;             // Blocks the player
+    public static final int DAMAGING = 1 << 1;     // Hurts the player when stepped on
+    public static final int PICKUP = 1 << 2;       // Is removed when collected
+    public static final int EXIT = 1 << 3;         // Ends the level once the statue is collected
+    public static final int BLOCKS_ENEMY = 1 << 4; // Enemies cannot move onto it
+    public static final int HEALS = 1 << 5;        // Heart pickup
+    public static final int SHIELDS = 1 << 6;      // Buff pickup
+    public static final int KEY = 1 << 7;          // Statue pickup
+
+    // Everything outside the map behaves like a wall
+    public static final int OUT_OF_BOUNDS = SOLID | BLOCKS_ENEMY;
+
+    // Flags for each tile type, indexed by (type & 0xFF)
+    private static final int[] FLAGS = new int[256];
+
+    static {
+        FLAGS[Tile.WALL & 0xFF] = SOLID | BLOCKS_ENEMY;
+        FLAGS[Tile.TOMBSTONE & 0xFF] = SOLID | BLOCKS_ENEMY;
+        FLAGS[Tile.TRAP & 0xFF] = DAMAGING | BLOCKS_ENEMY;
+        FLAGS[Tile.EXIT & 0xFF] = EXIT | BLOCKS_ENEMY;
+        FLAGS[Tile.STATUE & 0xFF] = PICKUP | KEY | BLOCKS_ENEMY;
+        FLAGS[Tile.HEART & 0xFF] = PICKUP | HEALS;
+        FLAGS[Tile.BUFF & 0xFF] = PICKUP | SHIELDS;
+    }
+
+    private final int width;
+    private final int height;
+    private byte[] tiles; // index = y * width + x
+    private boolean shared; // tiles belongs to a LevelData and must be copied before writing
+
+    // Change log, oldest change first
+    private int[] changedIndices = new int[16];
+    private byte[] previousTypes = new byte[16];
+    private int changeCount;
+
+    /**
+     * Creates an empty grid where every tile is floor only.
+     *
+     * @param width  The grid width in tiles
+     * @param height The grid height in tiles
+     */
+    public TileGrid(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.tiles = new byte[width * height];
+        Arrays.fill(tiles, Tile.EMPTY);
+    }
+
+    /**
+     * Creates a copy-on-write grid on top of the given row-major tile types.
+     * The array is never modified; it is copied when the first tile is set.
+     *
+     * @param width  The grid width in tiles
+     * @param height The grid height in tiles
+     * @param tiles  The tile types, width * height entries
+     */
+    public TileGrid(int width, int height, byte[] tiles) {
+        if (tiles.length != width * height) {
+            throw new IllegalArgumentException("Expected " + width * height + " tiles but got " + tiles.length);
+        }
+        this.width = width;
+        this.height = height;
+        this.tiles = tiles;
+        this.shared = true;
+    }
+
+    /**
+     * Returns the flag bits of a tile type.
+     *
+     * @param type The tile type
+     * @return The flags of that type, 0 for floor and spawn points
+     */
+    public static int flagsOf(byte type) {
+        return FLAGS[type & 0xFF];
+    }
+
+    /**
+     * Returns all flags of the tile at the given grid position in one lookup.
+     *
+     * @param x The tile column
+     * @param y The tile row
+     * @return The tile's flags, or OUT_OF_BOUNDS if the position is outside the grid
+     */
+    public int classify(int x, int y) {
+        if (x < 0 || x >= width || y < 0 || y >= height) {
+            return OUT_OF_BOUNDS;
+        }
+        return FLAGS[tiles[y * width + x] & 0xFF];
+    }
+
+    /**
+     * Returns the tile type at the given grid position.
+     *
+     * @param x The tile column
+     * @param y The tile row
+     * @return The tile type, or Tile.WALL if the position is outside the grid
+     */
+    public byte get(int x, int y) {
+        if (x < 0 || x >= width || y < 0 || y >= height) {
+            return Tile.WALL;
+        }
+        return tiles[y * width + x];
+    }
+
+    /**
+     * Sets the tile type at the given grid position and records the change.
+     * Positions outside the grid and writes that change nothing are ignored.
+     *
+     * @param x    The tile column
+     * @param y    The tile row
+     * @param type The new tile type
+     */
+    public void set(int x, int y, byte type) {
+        if (x < 0 || x >= width || y < 0 || y >= height) return;
+        int index = y * width + x;
+        if (tiles[index] == type) return;
+        if (shared) {
+            tiles = tiles.clone();
+            shared = false;
+        }
+
+        if (changeCount == changedIndices.length) {
+            changedIndices = Arrays.copyOf(changedIndices, changeCount * 2);
+            previousTypes = Arrays.copyOf(previousTypes, changeCount * 2);
+        }
+        changedIndices[changeCount] = index;
+        previousTypes[changeCount] = tiles[index];
+        changeCount++;
+        tiles[index] = type;
+    }
+
+    /**
+     * Undoes the most recent changes until only the given number of changes is left.
+     * Pass a value returned by {@link #getChangeCount()} earlier to return to that point.
+     *
+     * @param count The number of changes to keep
+     */
+    public void revertTo(int count) {
+        if (count < 0 || count > changeCount) {
+            throw new IllegalArgumentException("Cannot revert to change " + count + " of " + changeCount);
+        }
+        while (changeCount > count) {
+            changeCount--;
+            tiles[changedIndices[changeCount]] = previousTypes[changeCount];
+        }
+    }
+
+    /**
+     * Undoes every change, restoring the tiles the grid was created with.
+     */
+    public void reset() {
+        revertTo(0);
+    }
+
+    /**
+     * Returns the tile index (y * width + x) of a recorded change.
+     *
+     * @param change The change number, from 0 to getChangeCount() - 1
+     * @return The index of the tile that was changed
+     */
+    public int getChangedIndex(int change) {
+        if (change < 0 || change >= changeCount) {
+            throw new IllegalArgumentException("No change " + change);
+        }
+        return changedIndices[change];
+    }
+
+    public boolean isInside(int x, int y) {
+        return x >= 0 && x < width && y >= 0 && y < height;
+    }
+
+    /**
+     * Returns the number of recorded changes, usable as a checkpoint for {@link #revertTo(int)}.
+     *
+     * @return The number of changes since the grid was created or reset
+     */
+    public int getChangeCount() {
+        return changeCount;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+}
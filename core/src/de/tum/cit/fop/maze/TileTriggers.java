@@ -0,0 +1,193 @@
+package de.tum.cit.fop.maze;
+
+import com.badlogic.gdx.utils.Array;
+import java.util.Arrays;
+
+/**
+ * The TileTriggers class notices when the player or an enemy moves onto another tile and tells the
+ * handlers registered for the tile types involved.
+ * <p>
+ * Each tracked entity remembers the tile it stands on and that tile's type when it entered. Tracking
+ * a position on the same tile again is a single comparison and never reads the grid, so standing
+ * still costs nothing. When the tile changes, the handlers of the old type receive an exit event and
+ * the handlers of the new type an enter event. New tile behaviour is added by registering a handler
+ * for its type instead of checking for it every step.
+ */
+public class TileTriggers {
+    public static final int PLAYER = -1; // Entity id of the player; enemies use their EnemySystem ids
+    private static final int NONE = -1;
+
+    /**
+     * Reacts to entities entering or leaving tiles of the type it is registered for.
+     */
+    public interface Handler {
+        /**
+         * Called when an entity moves onto a tile of the registered type.
+         *
+         * @param entity PLAYER or an enemy id
+         * @param tileX  The column of the tile
+         * @param tileY  The row of the tile
+         */
+        void enter(int entity, int tileX, int tileY);
+
+        /**
+         * Called when an entity leaves a tile that had the registered type when it entered.
+         *
+         * @param entity PLAYER or an enemy id
+         * @param tileX  The column of the tile
+         * @param tileY  The row of the tile
+         */
+        default void exit(int entity, int tileX, int tileY) {
+        }
+    }
+
+    private final float tileSize;
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private final Array<Handler>[] handlers = new Array[256]; // By tile type & 0xFF
+    private TileGrid grid;
+
+    // Current tile index and the type it had on entering, NONE before the first track
+    private int playerTile = NONE;
+    private byte playerType;
+    private int[] enemyTiles = new int[0];
+    private byte[] enemyTypes = new byte[0];
+
+    /**
+     * Creates a trigger system without handlers.
+     *
+     * @param tileSize The width and height of a tile in pixels
+     */
+    public TileTriggers(float tileSize) {
+        this.tileSize = tileSize;
+    }
+
+    /**
+     * Registers a handler for a tile type. Handlers of one type are called in registration order.
+     *
+     * @param type    The tile type, see Tile
+     * @param handler The handler to call
+     */
+    public void on(byte type, Handler handler) {
+        int index = type & 0xFF;
+        if (handlers[index] == null) {
+            handlers[index] = new Array<>(false, 2);
+        }
+        handlers[index].add(handler);
+    }
+
+    /**
+     * Switches to another grid and forgets where every entity stands. Handlers are kept.
+     *
+     * @param grid The tile grid of the new level
+     */
+    public void setGrid(TileGrid grid) {
+        this.grid = grid;
+        clear();
+    }
+
+    /**
+     * Forgets where every entity stands, so the next track of each dispatches an enter event.
+     */
+    public void clear() {
+        playerTile = NONE;
+        Arrays.fill(enemyTiles, NONE);
+    }
+
+    /**
+     * Updates the tile of an entity and dispatches exit and enter events if it changed.
+     *
+     * @param entity PLAYER or an enemy id
+     * @param x      The x-coordinate of the point that decides the entity's tile, in pixels
+     * @param y      The y-coordinate of that point in pixels
+     */
+    public void track(int entity, float x, float y) {
+        int tileX = (int) Math.floor(x / tileSize);
+        int tileY = (int) Math.floor(y / tileSize);
+        int tile = grid.isInside(tileX, tileY) ? tileY * grid.getWidth() + tileX : NONE;
+
+        int previousTile;
+        byte previousType;
+        if (entity == PLAYER) {
+            if (tile == playerTile) return;
+            previousTile = playerTile;
+            previousType = playerType;
+        } else {
+            if (entity >= enemyTiles.length) {
+                int oldLength = enemyTiles.length;
+                enemyTiles = Arrays.copyOf(enemyTiles, Math.max(entity + 1, oldLength * 2));
+                enemyTypes = Arrays.copyOf(enemyTypes, enemyTiles.length);
+                Arrays.fill(enemyTiles, oldLength, enemyTiles.length, NONE);
+            }
+            if (tile == enemyTiles[entity]) return;
+            previousTile = enemyTiles[entity];
+            previousType = enemyTypes[entity];
+        }
+
+        // Remember the new tile before dispatching, so handlers that move the entity see it
+        byte type = tile == NONE ? Tile.EMPTY : grid.get(tileX, tileY);
+        if (entity == PLAYER) {
+            playerTile = tile;
+            playerType = type;
+        } else {
+            enemyTiles[entity] = tile;
+            enemyTypes[entity] = type;
+        }
+
+        if (previousTile != NONE) {
+            dispatch(previousType, entity, previousTile, false);
+        }
+        if (tile != NONE) {
+            dispatch(type, entity, tile, true);
+        }
+    }
+
+    /**
+     * The tile every entity stands on and its type on entering, for GameWorld snapshots.
+     */
+    static final class State {
+        private final int playerTile;
+        private final byte playerType;
+        private final int[] enemyTiles;
+        private final byte[] enemyTypes;
+
+        private State(int playerTile, byte playerType, int[] enemyTiles, byte[] enemyTypes) {
+            this.playerTile = playerTile;
+            this.playerType = playerType;
+            this.enemyTiles = enemyTiles;
+            this.enemyTypes = enemyTypes;
+        }
+    }
+
+    /**
+     * @return A copy of where every entity stands
+     */
+    State saveState() {
+        return new State(playerTile, playerType, enemyTiles.clone(), enemyTypes.clone());
+    }
+
+    /**
+     * Puts every entity back on the tiles of a saved state without dispatching any events.
+     *
+     * @param state A state returned by saveState() of this trigger system
+     */
+    void restoreState(State state) {
+        playerTile = state.playerTile;
+        playerType = state.playerType;
+        enemyTiles = state.enemyTiles.clone();
+        enemyTypes = state.enemyTypes.clone();
+    }
+
+    private void dispatch(byte type, int entity, int tile, boolean enter) {
+        Array<Handler> typeHandlers = handlers[type & 0xFF];
+        if (typeHandlers == null) return;
+        int tileX = tile % grid.getWidth();
+        int tileY = tile / grid.getWidth();
+        for (int i = 0; i < typeHandlers.size; i++) {
+            if (enter) {
+                typeHandlers.get(i).enter(entity, tileX, tileY);
+            } else {
+                typeHandlers.get(i).exit(entity, tileX, tileY);
+            }
+        }
+    }
+}
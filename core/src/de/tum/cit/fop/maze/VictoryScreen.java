@@ -12,7 +12,6 @@
  */
 
 public class VictoryScreen extends BaseScreen {
-    private static final int MAX_LEVEL = 5;
     private final int currentLevel;
     private final float elapsedTime;
     private final int score;
@@ -41,13 +40,15 @@ public VictoryScreen(MazeRunnerGame game, float elapsedTime) {
         table.add(new Label("Your Score: " + score, game.getSkin(), "title")).padBottom(80).row();
 
         // Add next level button if not on final level
-        if (currentLevel < MAX_LEVEL) {
+        LevelInfo nextLevel = game.getLevelManifest().getNextLevel(currentLevel);
+        if (nextLevel != null) {
+            game.getLevelLoader().preload(nextLevel); // Parse it while the score is shown
             TextButton nextLevelButton = new TextButton("NEXT LEVEL", game.getSkin());
             table.add(nextLevelButton).width(270).padBottom(18).row();
             nextLevelButton.addListener(new ChangeListener() {
                 @Override
                 public void changed(ChangeEvent event, Actor actor) {
-                    GameScreen nextGameScreen = new GameScreen(game, currentLevel + 1);
+                    GameScreen nextGameScreen = new GameScreen(game, nextLevel.getId());
                     game.setGameScreen(nextGameScreen);
                     game.pushScreen(nextGameScreen);
                 }
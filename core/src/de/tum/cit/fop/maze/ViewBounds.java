@@ -0,0 +1,120 @@
+package de.tum.cit.fop.maze;
+
+import com.badlogic.gdx.graphics.OrthographicCamera;
+
+/**
+ * The ViewBounds class holds the world-space rectangle currently visible through a camera.
+ * It is updated once per frame and used to limit tile loops and entity work to what is on screen,
+ * so the cost of a frame depends on the screen size and not on the map size.
+ */
+public class ViewBounds {
+    private float left;
+    private float bottom;
+    private float right;
+    private float top;
+
+    /**
+     * Recomputes the visible rectangle from the camera position, viewport and zoom.
+     * The zoom is clamped the same way the GameScreen clamps scrolling.
+     *
+     * @param camera  The camera to read the view from
+     * @param minZoom The smallest allowed zoom level
+     * @param maxZoom The largest allowed zoom level
+     */
+    public void update(OrthographicCamera camera, float minZoom, float maxZoom) {
+        float zoom = Math.min(maxZoom, Math.max(minZoom, camera.zoom));
+        float halfWidth = camera.viewportWidth * zoom / 2f;
+        float halfHeight = camera.viewportHeight * zoom / 2f;
+
+        left = camera.position.x - halfWidth;
+        right = camera.position.x + halfWidth;
+        bottom = camera.position.y - halfHeight;
+        top = camera.position.y + halfHeight;
+    }
+
+    /**
+     * Checks if a rectangle intersects the view.
+     *
+     * @param x      The left edge of the rectangle
+     * @param y      The bottom edge of the rectangle
+     * @param width  The rectangle width
+     * @param height The rectangle height
+     * @return true if any part of the rectangle is visible
+     */
+    public boolean overlaps(float x, float y, float width, float height) {
+        return overlaps(x, y, width, height, 0f);
+    }
+
+    /**
+     * Checks if a rectangle intersects the view grown by a margin on every side.
+     *
+     * @param x      The left edge of the rectangle
+     * @param y      The bottom edge of the rectangle
+     * @param width  The rectangle width
+     * @param height The rectangle height
+     * @param margin Extra distance around the view that still counts as inside
+     * @return true if the rectangle intersects the grown view
+     */
+    public boolean overlaps(float x, float y, float width, float height, float margin) {
+        return x + width >= left - margin && x <= right + margin
+                && y + height >= bottom - margin && y <= top + margin;
+    }
+
+    /**
+     * Returns the first visible cell column for a grid with the given cell size.
+     *
+     * @param cellSize The width of a grid cell in world units
+     * @return The first visible column, never below 0
+     */
+    public int firstColumn(float cellSize) {
+        return Math.max(0, (int) Math.floor(left / cellSize));
+    }
+
+    /**
+     * Returns the last visible cell column for a grid with the given cell size.
+     *
+     * @param cellSize The width of a grid cell in world units
+     * @param columns  The number of columns in the grid
+     * @return The last visible column, never above columns - 1
+     */
+    public int lastColumn(float cellSize, int columns) {
+        return Math.min(columns - 1, (int) Math.floor(right / cellSize));
+    }
+
+    /**
+     * Returns the first visible cell row for a grid with the given cell size.
+     *
+     * @param cellSize The height of a grid cell in world units
+     * @return The first visible row, never below 0
+     */
+    public int firstRow(float cellSize) {
+        return Math.max(0, (int) Math.floor(bottom / cellSize));
+    }
+
+    /**
+     * Returns the last visible cell row for a grid with the given cell size.
+     *
+     * @param cellSize The height of a grid cell in world units
+     * @param rows     The number of rows in the grid
+     * @return The last visible row, never above rows - 1
+     */
+    public int lastRow(float cellSize, int rows) {
+        return Math.min(rows - 1, (int) Math.floor(top / cellSize));
+    }
+
+    public float getLeft() {
+        return left;
+    }
+
+    public float getBottom() {
+        return bottom;
+    }
+
+    public float getRight() {
+        return right;
+    }
+
+    public float getTop() {
+        return top;
+    }
+}